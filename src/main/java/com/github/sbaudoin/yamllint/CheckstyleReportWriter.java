@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.List;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Writes a report in the Checkstyle XML format, as understood by most CI servers and code quality
+ * tools:
+ *
+ * <pre>
+ * &lt;?xml version="1.0" encoding="UTF-8"?&gt;
+ * &lt;checkstyle version="4.3"&gt;
+ * &lt;file name="file.yaml"&gt;
+ * &lt;error line="1" column="5" severity="error" message="too many spaces before colon" source="yamllint.colons"/&gt;
+ * &lt;/file&gt;
+ * &lt;/checkstyle&gt;
+ * </pre>
+ */
+public final class CheckstyleReportWriter implements ReportWriter {
+  /** Version of the Checkstyle format */
+  public static final String CHECKSTYLE_VERSION = "4.3";
+
+  private final XMLStreamWriter xml;
+  private final Charset charset;
+
+  /**
+   * Constructor
+   *
+   * @param out where to write the report, typically a buffered {@code Writer}
+   * @param charset the charset used by <var>out</var>, declared in the XML prolog
+   * @throws IOException if the XML writer cannot be created
+   */
+  public CheckstyleReportWriter(Writer out, Charset charset) throws IOException {
+    try {
+      this.xml = XMLOutputFactory.newFactory().createXMLStreamWriter(out);
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+    this.charset = charset;
+  }
+
+  @Override
+  public void start() throws IOException {
+    try {
+      xml.writeStartDocument(charset.name(), "1.0");
+      xml.writeCharacters("\n");
+      xml.writeStartElement("checkstyle");
+      xml.writeAttribute("version", CHECKSTYLE_VERSION);
+      xml.writeCharacters("\n");
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public void write(String file, List<LintProblem> problems) throws IOException {
+    try {
+      xml.writeStartElement("file");
+      xml.writeAttribute("name", file);
+      xml.writeCharacters("\n");
+      for (LintProblem problem : problems) {
+        xml.writeEmptyElement("error");
+        xml.writeAttribute("line", Integer.toString(problem.getLine()));
+        xml.writeAttribute("column", Integer.toString(problem.getColumn()));
+        xml.writeAttribute(
+            "severity", (problem.getLevel() == null) ? Linter.ERROR_LEVEL : problem.getLevel());
+        xml.writeAttribute("message", problem.getDesc());
+        xml.writeAttribute(
+            "source",
+            (problem.getRuleId() == null)
+                ? Cli.APP_NAME
+                : (Cli.APP_NAME + "." + problem.getRuleId()));
+        xml.writeCharacters("\n");
+      }
+      xml.writeEndElement();
+      xml.writeCharacters("\n");
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public void end() throws IOException {
+    try {
+      xml.writeEndElement();
+      xml.writeCharacters("\n");
+      xml.writeEndDocument();
+      xml.flush();
+    } catch (XMLStreamException e) {
+      throw new IOException(e);
+    }
+  }
+}
@@ -18,8 +18,13 @@ package com.github.sbaudoin.yamllint;
 import static com.github.sbaudoin.yamllint.Format.OutputFormat;
 
 import java.io.*;
-import java.nio.file.Path;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.cli.*;
@@ -46,6 +51,9 @@ public final class Cli {
                   new AbstractMap.SimpleEntry<>("standard", OutputFormat.STANDARD),
                   new AbstractMap.SimpleEntry<>("colored", OutputFormat.COLORED),
                   new AbstractMap.SimpleEntry<>("github", OutputFormat.GITHUB),
+                  new AbstractMap.SimpleEntry<>("jsonl", OutputFormat.JSON_LINES),
+                  new AbstractMap.SimpleEntry<>("checkstyle", OutputFormat.CHECKSTYLE),
+                  new AbstractMap.SimpleEntry<>("sarif", OutputFormat.SARIF),
                   new AbstractMap.SimpleEntry<>("auto", OutputFormat.AUTO))
               .collect(
                   Collectors.toMap(
@@ -78,9 +86,30 @@ public final class Cli {
   private static final String ARG_VERSION = "version";
   private static final String ARG_HELP = "help";
   private static final String ARG_LIST_FILES = "list-files";
+  private static final String ARG_FAIL_FAST = "fail-fast";
+  private static final String ARG_JOBS = "jobs";
+  private static final String ARG_READ_JOBS = "read-jobs";
+  private static final String ARG_PIPELINE_STATS = "pipeline-stats";
+  private static final String ARG_SUMMARY = "summary";
+  private static final String ARG_FILES_FROM = "files-from";
+  private static final String ARG_NULL = "null";
+  private static final String ARG_MAX_PROBLEMS_PER_FILE = YamlLintConfig.MAX_PROBLEMS_PER_FILE_KEY;
+  private static final String ARG_MAX_PROBLEMS_PER_RULE = YamlLintConfig.MAX_PROBLEMS_PER_RULE_KEY;
+
+  /** Size of the standard output buffer */
+  private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
 
   private OutputStream stdout = System.out;
   private OutputStream errout = System.err;
+  // Buffered writer to stdout, created on first use
+  private Writer writer = null;
+  // Charset of the writer to stdout: UTF-8 for the machine-readable reports, the default one
+  // otherwise
+  private Charset charset = Charset.defaultCharset();
+  // Writer of the lint report, created when linting starts
+  private ReportWriter reportWriter = null;
+  // Summary of the lint run, replaces the report if the --summary option is set
+  private LintSummary summary = null;
 
   /**
    * Main method
@@ -98,6 +127,7 @@ public final class Cli {
    */
   public void setStdOutputStream(OutputStream out) {
     this.stdout = out;
+    this.writer = null;
   }
 
   /**
@@ -115,71 +145,202 @@ public final class Cli {
    * @param args the command line arguments
    */
   public void run(final String[] args) {
+    try {
+      lintAndExit(args);
+    } finally {
+      // What has been output so far must not be lost if an unexpected error occurs
+      flushOut();
+    }
+  }
+
+  /**
+   * Lints the files passed on the command line and terminates the program
+   *
+   * @param args the command line arguments
+   */
+  private void lintAndExit(final String[] args) {
     Map<String, Object> arguments = getCommandLineArguments(args);
     YamlLintConfig conf = getYamlLintConfig(arguments);
+    if (conf != null && Boolean.TRUE.equals(arguments.get(ARG_NO_WARNINGS))) {
+      // Do not even run the rules whose problems would not be output
+      conf.setMinLevel(Linter.ERROR_LEVEL);
+    }
+    if (conf != null && arguments.get(ARG_MAX_PROBLEMS_PER_FILE) != null) {
+      conf.setMaxProblemsPerFile((Integer) arguments.get(ARG_MAX_PROBLEMS_PER_FILE));
+    }
+    if (conf != null && arguments.get(ARG_MAX_PROBLEMS_PER_RULE) != null) {
+      conf.setMaxProblemsPerRule((Integer) arguments.get(ARG_MAX_PROBLEMS_PER_RULE));
+    }
 
     if (Boolean.TRUE.equals(arguments.get(ARG_LIST_FILES))) {
-      for (String path : findFilesRecursively(conf, (String[]) arguments.get(ARG_FILES_OR_DIR))) {
-        assert conf != null;
-        if (!conf.isFileIgnored(path)) {
-          out(path);
-        }
+      findFiles(
+          conf,
+          arguments,
+          (path, size) -> {
+            out(path);
+            return true;
+          });
+      exit(0);
+    }
+
+    // Nothing must be left from a previous run of this instance
+    summary = null;
+    reportWriter = null;
+    OutputFormat format = OUTPUT_FORMATS.get(arguments.get(ARG_FORMAT));
+    Charset outputCharset =
+        (format == OutputFormat.JSON_LINES
+                || format == OutputFormat.CHECKSTYLE
+                || format == OutputFormat.SARIF)
+            ? StandardCharsets.UTF_8
+            : Charset.defaultCharset();
+    if (!outputCharset.equals(charset)) {
+      flushOut();
+      writer = null;
+      charset = outputCharset;
+    }
+    try {
+      if (Boolean.TRUE.equals(arguments.get(ARG_SUMMARY))) {
+        summary = new LintSummary(LintSummary.DEFAULT_TOP);
+      } else {
+        reportWriter = newReportWriter(format, conf);
+        reportWriter.start();
       }
-      System.exit(0);
-    }
-
-    int maxLevel = 0;
-    boolean first = true;
-    for (String path : findFilesRecursively(conf, (String[]) arguments.get(ARG_FILES_OR_DIR))) {
-      try (InputStream in = "-".equals(path) ? System.in : new FileInputStream(path)) {
-        File file = new File("-".equals(path) ? "stdin" : path);
-        // Get problems and remove warnings if requested
-        List<LintProblem> problems =
-            Linter.run(in, conf, file).stream()
-                .filter(
-                    problem ->
-                        Boolean.FALSE.equals(arguments.get(ARG_NO_WARNINGS))
-                            || problem.getLevel() == null
-                            || Linter.ERROR_LEVEL.equals(problem.getLevel()))
-                .collect(Collectors.toList());
-        String output =
-            Format.format(file.getPath(), problems, OUTPUT_FORMATS.get(arguments.get(ARG_FORMAT)));
-        if (!"".equals(output)) {
-          out(output);
-        }
-        // Save max level
-        int level =
-            problems.stream()
-                .mapToInt(problem -> (Integer) Linter.getProblemLevel(problem.getLevel()))
-                .max()
-                .orElse(0);
-        if (level > maxLevel) {
-          maxLevel = level;
-        }
-      } catch (IOException e) {
-        err(
-            "Cannot read "
-                + ("-".equals(path) ? "standard input" : ("file `" + path + "'"))
-                + ", skipping");
+    } catch (IOException e) {
+      outputFailed(e);
+    }
+
+    AtomicInteger maxLevel = new AtomicInteger(0);
+    AtomicBoolean first = new AtomicBoolean(true);
+    int jobs = (Integer) arguments.get(ARG_JOBS);
+    if (jobs == 1) {
+      findFiles(
+          conf,
+          arguments,
+          (path, size) -> {
+            List<LintProblem> problems;
+            try {
+              problems = lint(path, read(path), conf);
+            } catch (IOException e) {
+              problems = null;
+            }
+            return report(path, problems, arguments, maxLevel, first);
+          });
+    } else {
+      int readJobs = (Integer) arguments.get(ARG_READ_JOBS);
+      LintPipeline pipeline = new LintPipeline(readJobs, jobs, 2 * (readJobs + jobs), 8 * jobs);
+      pipeline.run(
+          sink -> findFiles(conf, arguments, sink),
+          Cli::read,
+          (path, content) -> lint(path, content, conf),
+          item -> report(item.getPath(), item.getProblems(), arguments, maxLevel, first));
+      if (Boolean.TRUE.equals(arguments.get(ARG_PIPELINE_STATS))) {
+        pipeline.getStages().forEach(stage -> err(stage.toString()));
       }
+    }
 
-      // Add an extra line break for standard and colored formats
-      if (!first
-          && OUTPUT_FORMATS.get(arguments.get(ARG_FORMAT)) != OutputFormat.PARSABLE
-          && OUTPUT_FORMATS.get(arguments.get(ARG_FORMAT)) != OutputFormat.GITHUB) {
-        out("");
+    try {
+      if (summary != null) {
+        summary.write(getWriter());
+      } else {
+        reportWriter.end();
       }
-      first = false;
+    } catch (IOException e) {
+      outputFailed(e);
     }
 
-    if (maxLevel == (int) Linter.getProblemLevel(Linter.ERROR_LEVEL)) {
-      System.exit(1);
-    } else if (maxLevel == (int) Linter.getProblemLevel(Linter.WARNING_LEVEL)
+    if (maxLevel.get() == (int) Linter.getProblemLevel(Linter.ERROR_LEVEL)) {
+      exit(1);
+    } else if (maxLevel.get() == (int) Linter.getProblemLevel(Linter.WARNING_LEVEL)
         && Boolean.TRUE.equals(arguments.get(ARG_STRICT))) {
-      System.exit(2);
+      exit(2);
     }
 
-    System.exit(0);
+    exit(0);
+  }
+
+  /**
+   * Reads a file
+   *
+   * @param path the path of the file to be read, <code>-</code> for the standard input
+   * @return the content of the file
+   * @throws IOException if the file cannot be read
+   */
+  private static byte[] read(String path) throws IOException {
+    try (InputStream in = "-".equals(path) ? System.in : new FileInputStream(path)) {
+      return in.readAllBytes();
+    }
+  }
+
+  /**
+   * Lints a file
+   *
+   * @param path the path of the file to be linted, <code>-</code> for the standard input
+   * @param content the content of the file
+   * @param conf the linter configuration
+   * @return the problems found in the file
+   */
+  private static List<LintProblem> lint(String path, byte[] content, YamlLintConfig conf) {
+    File file = new File("-".equals(path) ? "stdin" : path);
+    try {
+      // Warning rules are not run at all if --no-warnings is set (see above)
+      return Linter.run(new ByteArrayInputStream(content), conf, file);
+    } catch (IOException e) {
+      // Cannot happen with an in-memory stream
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Outputs the problems found in a file
+   *
+   * @param path the path of the file, <code>-</code> for the standard input
+   * @param problems the problems found in the file or <code>null</code> if the file could not be
+   *     read
+   * @param arguments the command line arguments
+   * @param maxLevel the maximum level of the problems found so far, updated by this method
+   * @param first <code>true</code> until the first file has been reported, updated by this method
+   * @return <code>false</code> if the other files do not need to be linted, <code>true</code>
+   *     otherwise
+   */
+  private boolean report(
+      String path,
+      List<LintProblem> problems,
+      Map<String, Object> arguments,
+      AtomicInteger maxLevel,
+      AtomicBoolean first) {
+    if (problems == null) {
+      err(
+          "Cannot read "
+              + ("-".equals(path) ? "standard input" : ("file `" + path + "'"))
+              + ", skipping");
+    } else {
+      if (summary != null) {
+        summary.add("-".equals(path) ? "stdin" : new File(path).getPath(), problems);
+      } else if (!problems.isEmpty()) {
+        out("-".equals(path) ? "stdin" : new File(path).getPath(), problems);
+      }
+      // Save max level
+      int level =
+          problems.stream()
+              .mapToInt(problem -> (Integer) Linter.getProblemLevel(problem.getLevel()))
+              .max()
+              .orElse(0);
+      maxLevel.accumulateAndGet(level, Math::max);
+    }
+
+    // Add an extra line break for standard and colored formats
+    OutputFormat format = OUTPUT_FORMATS.get(arguments.get(ARG_FORMAT));
+    if (!first.getAndSet(false)
+        && summary == null
+        && (format == OutputFormat.STANDARD
+            || format == OutputFormat.COLORED
+            || format == OutputFormat.AUTO)) {
+      out("");
+    }
+
+    // No need to lint the other files: we already know the exit status
+    return !Boolean.TRUE.equals(arguments.get(ARG_FAIL_FAST))
+        || maxLevel.get() != (int) Linter.getProblemLevel(Linter.ERROR_LEVEL);
   }
 
   /**
@@ -198,11 +359,68 @@ public final class Cli {
     arguments.put(ARG_NO_WARNINGS, cmdLine.hasOption(ARG_NO_WARNINGS));
     arguments.put(ARG_LIST_FILES, cmdLine.hasOption(ARG_LIST_FILES));
     arguments.put(ARG_STRICT, cmdLine.hasOption('s'));
+    arguments.put(ARG_FAIL_FAST, cmdLine.hasOption(ARG_FAIL_FAST));
+    arguments.put(ARG_MAX_PROBLEMS_PER_FILE, getMaxProblems(cmdLine, ARG_MAX_PROBLEMS_PER_FILE));
+    arguments.put(ARG_MAX_PROBLEMS_PER_RULE, getMaxProblems(cmdLine, ARG_MAX_PROBLEMS_PER_RULE));
+    int jobs = getJobs(cmdLine, ARG_JOBS, Runtime.getRuntime().availableProcessors());
+    arguments.put(ARG_JOBS, jobs);
+    arguments.put(ARG_READ_JOBS, getJobs(cmdLine, ARG_READ_JOBS, 2 * jobs));
+    arguments.put(ARG_PIPELINE_STATS, cmdLine.hasOption(ARG_PIPELINE_STATS));
+    arguments.put(ARG_SUMMARY, cmdLine.hasOption(ARG_SUMMARY));
+    arguments.put(ARG_FILES_FROM, cmdLine.getOptionValue(ARG_FILES_FROM));
+    arguments.put(ARG_NULL, cmdLine.hasOption(ARG_NULL));
     arguments.put(ARG_FILES_OR_DIR, cmdLine.getArgs());
 
     return arguments;
   }
 
+  /**
+   * Returns the maximum number of problems passed with the given option
+   *
+   * @param cmdLine the parsed command line
+   * @param option the option name
+   * @return the maximum number of problems or {@code null} if the option is not set
+   */
+  private Integer getMaxProblems(CommandLine cmdLine, String option) {
+    if (!cmdLine.hasOption(option)) {
+      return null;
+    }
+    try {
+      int max = Integer.parseInt(cmdLine.getOptionValue(option));
+      if (max >= 0) {
+        return max;
+      }
+    } catch (NumberFormatException e) {
+      // Error handled below
+    }
+    endOnError("option `" + option + "' must be a positive integer or 0", false);
+    return null;
+  }
+
+  /**
+   * Returns the number of threads passed with the given option
+   *
+   * @param cmdLine the parsed command line
+   * @param option the option name
+   * @param defaultValue the value returned if the option is not set
+   * @return the number of threads
+   */
+  private int getJobs(CommandLine cmdLine, String option, int defaultValue) {
+    if (!cmdLine.hasOption(option)) {
+      return defaultValue;
+    }
+    try {
+      int jobs = Integer.parseInt(cmdLine.getOptionValue(option));
+      if (jobs > 0) {
+        return jobs;
+      }
+    } catch (NumberFormatException e) {
+      // Error handled below
+    }
+    endOnError("option `" + option + "' must be a strictly positive integer", false);
+    return 1;
+  }
+
   /**
    * Defines the options of this program (excluding the last positional arguments)
    *
@@ -265,6 +483,77 @@ public final class Cli {
             .argName(ARG_NO_WARNINGS)
             .desc("output only error level problems")
             .build());
+    options.addOption(
+        Option.builder()
+            .longOpt(ARG_FAIL_FAST)
+            .hasArg(false)
+            .argName(ARG_FAIL_FAST)
+            .desc("stop at the first file with an error level problem")
+            .build());
+    options.addOption(
+        Option.builder()
+            .longOpt(ARG_MAX_PROBLEMS_PER_FILE)
+            .hasArg()
+            .argName("max")
+            .desc("maximum number of problems reported per file (0 for no limit)")
+            .build());
+    options.addOption(
+        Option.builder()
+            .longOpt(ARG_MAX_PROBLEMS_PER_RULE)
+            .hasArg()
+            .argName("max")
+            .desc("maximum number of problems reported per rule and file (0 for no limit)")
+            .build());
+    options.addOption(
+        Option.builder("j")
+            .longOpt(ARG_JOBS)
+            .hasArg()
+            .argName("N")
+            .desc("number of files linted concurrently (default: number of processors)")
+            .build());
+    options.addOption(
+        Option.builder()
+            .longOpt(ARG_READ_JOBS)
+            .hasArg()
+            .argName("N")
+            .desc(
+                "number of files read concurrently before Java 21 (default: twice the number of"
+                    + " jobs); with Java 21 or later, each file is read by its own virtual thread")
+            .build());
+    options.addOption(
+        Option.builder()
+            .longOpt(ARG_PIPELINE_STATS)
+            .hasArg(false)
+            .argName(ARG_PIPELINE_STATS)
+            .desc("print the statistics of the lint pipeline stages to the error output")
+            .build());
+    options.addOption(
+        Option.builder()
+            .longOpt(ARG_SUMMARY)
+            .hasArg(false)
+            .argName(ARG_SUMMARY)
+            .desc(
+                "print the number of problems per level and per rule, and the files and"
+                    + " directories with the most problems, instead of the problems")
+            .build());
+    options.addOption(
+        Option.builder()
+            .longOpt(ARG_FILES_FROM)
+            .hasArg()
+            .argName("file")
+            .desc(
+                "read the paths of the files to lint, one per line, from a file or from the"
+                    + " standard input if -; these files are not searched for in directories")
+            .build());
+    options.addOption(
+        Option.builder("0")
+            .longOpt(ARG_NULL)
+            .hasArg(false)
+            .argName(ARG_NULL)
+            .desc(
+                "paths read with --files-from are separated by NUL characters, e.g. as output by"
+                    + " git ls-files -z")
+            .build());
     options.addOption(
         Option.builder()
             .longOpt(ARG_LIST_FILES)
@@ -303,7 +592,7 @@ public final class Cli {
         Properties props = new Properties();
         props.load(Cli.class.getClassLoader().getResourceAsStream("yaml.properties"));
         err(APP_NAME + " " + props.getProperty("version"));
-        System.exit(0);
+        exit(0);
       }
 
       String format = cmdLine.getOptionValue(ARG_FORMAT, DEFAULT_FORMAT);
@@ -323,13 +612,21 @@ public final class Cli {
       }
 
       // If no argument, we show a short error message
-      if (cmdLine.getArgs().length == 0) {
+      String filesFrom = cmdLine.getOptionValue(ARG_FILES_FROM);
+      if (cmdLine.getArgs().length == 0 && filesFrom == null) {
         endOnError("FILE_OR_DIR is required", true);
       }
-      // If - is supplied, it must be the only argument
+      // If - is supplied, it must be the only argument (the files listed with --files-from are not
+      // arguments)
       if (Arrays.stream(cmdLine.getArgs()).anyMatch("-"::equals) && cmdLine.getArgs().length > 1) {
         endOnError("If - supplied, it must be the only argument", false);
       }
+      if ("-".equals(filesFrom) && Arrays.asList(cmdLine.getArgs()).contains("-")) {
+        endOnError("standard input cannot be both linted and read with --files-from", false);
+      }
+      if (filesFrom != null && !"-".equals(filesFrom) && !fileExists(Path.of(filesFrom))) {
+        endOnError("cannot find file list `" + filesFrom + "'", false);
+      }
     } catch (AlreadySelectedException e) {
       endOnError("options `c' and `d' are mutually exclusive.\n", true);
     } catch (ParseException | IOException e) {
@@ -441,33 +738,169 @@ public final class Cli {
   }
 
   /**
-   * Processes recursively the passed paths to build and return a list of expected YAML files (file
-   * extension is `.yml' or `.yaml')
+   * Calls <var>action</var> with each YAML file to be linted: the files found in the paths passed
+   * as arguments, then the files listed with <code>--files-from</code>
    *
+   * @param conf the linter configuration
+   * @param arguments the command line arguments
+   * @param action the action to be called with the path and size of each YAML file; it returns
+   *     <code>false</code> to stop the processing
+   */
+  private void findFiles(
+      final YamlLintConfig conf, Map<String, Object> arguments, final LintPipeline.Sink action) {
+    if (findFilesRecursively(conf, (String[]) arguments.get(ARG_FILES_OR_DIR), action)
+        && arguments.get(ARG_FILES_FROM) != null) {
+      findListedFiles(
+          conf,
+          (String) arguments.get(ARG_FILES_FROM),
+          Boolean.TRUE.equals(arguments.get(ARG_NULL)),
+          action);
+    }
+  }
+
+  /**
+   * Reads a list of paths and calls <var>action</var> with each of them that is an expected YAML
+   * file and is not ignored, as soon as it is read. Unlike {@link #findFilesRecursively(
+   * YamlLintConfig, String[], LintPipeline.Sink)}, the paths are not searched for in directories.
+   *
+   * @param conf the linter configuration
+   * @param list the path to the file that lists the paths, <code>-</code> for the standard input
+   * @param nul <code>true</code> if the paths are separated by NUL characters, <code>false</code>
+   *     if they are separated by line breaks
+   * @param action the action to be called with the path and size of each YAML file; it returns
+   *     <code>false</code> to stop the processing
+   */
+  private void findListedFiles(
+      final YamlLintConfig conf, String list, boolean nul, final LintPipeline.Sink action) {
+    char separator = nul ? '\0' : '\n';
+    try (Reader in =
+        new BufferedReader(
+            new InputStreamReader(
+                "-".equals(list) ? System.in : new FileInputStream(list),
+                Charset.defaultCharset()))) {
+      StringBuilder path = new StringBuilder();
+      int c;
+      do {
+        c = in.read();
+        if (c != -1 && c != separator) {
+          path.append((char) c);
+          continue;
+        }
+        if (!nul && path.length() > 0 && path.charAt(path.length() - 1) == '\r') {
+          path.setLength(path.length() - 1);
+        }
+        if (path.length() > 0) {
+          // A listed file named - is not the standard input
+          String item = "-".contentEquals(path) ? ("." + File.separator + "-") : path.toString();
+          if (conf.isYamlFile(item)
+              && !conf.isFileIgnored(item)
+              && !action.accept(item, new File(item).length())) {
+            return;
+          }
+          path.setLength(0);
+        }
+      } while (c != -1);
+    } catch (IOException e) {
+      err(
+          "Cannot read "
+              + ("-".equals(list) ? "standard input" : ("file list `" + list + "'"))
+              + ", the other files are skipped");
+    }
+  }
+
+  /**
+   * Processes recursively the passed paths and calls <var>action</var> with each expected YAML file
+   * (file extension is `.yml' or `.yaml' by default) that is not ignored, as soon as it is found.
+   * Directories whose files are all ignored are not entered, and files reached several times (e.g.
+   * through symbolic links) are only processed once.
+   *
+   * @param conf the linter configuration
    * @param items a list of paths
-   * @return a list of paths to YAML files
+   * @param action the action to be called with the path and size of each YAML file; it returns
+   *     <code>false
+   *     </code> to stop the processing
+   * @return <code>false</code> if the processing has been stopped by <var>action</var>
    */
-  private List<String> findFilesRecursively(final YamlLintConfig conf, final String[] items) {
-    List<String> files = new ArrayList<>();
+  private boolean findFilesRecursively(
+      final YamlLintConfig conf, final String[] items, final LintPipeline.Sink action) {
+    Set<Object> visited = new HashSet<>();
     for (String item : items) {
       if ("-".equals(item)) {
-        files.add("-");
+        if (!action.accept("-", 0)) {
+          return false;
+        }
         continue;
       }
-      File file = new File(item);
-      if (file.isDirectory()) {
-        files.addAll(
-            findFilesRecursively(
-                conf,
-                Arrays.stream(file.list())
-                    .map(name -> file.getPath() + File.separator + name)
-                    .collect(Collectors.toList())
-                    .toArray(new String[] {})));
-      } else if (file.isFile() && conf.isYamlFile(item)) {
-        files.add(item);
+      YamlFileVisitor visitor = new YamlFileVisitor(conf, visited, action);
+      try {
+        Files.walkFileTree(
+            Path.of(item), EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, visitor);
+      } catch (InvalidPathException | IOException e) {
+        // Not a file nor a directory: skipped
+      }
+      if (visitor.stopped) {
+        return false;
       }
     }
-    return files;
+    return true;
+  }
+
+  /** File visitor that finds the YAML files to be linted */
+  private static final class YamlFileVisitor extends SimpleFileVisitor<Path> {
+    private final YamlLintConfig conf;
+    private final Set<Object> visited;
+    private final LintPipeline.Sink action;
+    private boolean stopped = false;
+
+    private YamlFileVisitor(YamlLintConfig conf, Set<Object> visited, LintPipeline.Sink action) {
+      this.conf = conf;
+      this.visited = visited;
+      this.action = action;
+    }
+
+    @Override
+    public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+      if (!visited.add(getKey(dir, attrs)) || conf.isDirectoryIgnored(dir.toString())) {
+        return FileVisitResult.SKIP_SUBTREE;
+      }
+      return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+      String path = file.toString();
+      if (attrs.isRegularFile()
+          && conf.isYamlFile(path)
+          && !conf.isFileIgnored(path)
+          && visited.add(getKey(file, attrs))
+          && !action.accept(path, attrs.size())) {
+        stopped = true;
+        return FileVisitResult.TERMINATE;
+      }
+      return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult visitFileFailed(Path file, IOException exc) {
+      // Unreadable files and directories, symbolic link loops...: skipped
+      return FileVisitResult.CONTINUE;
+    }
+
+    @Override
+    public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+      return FileVisitResult.CONTINUE;
+    }
+
+    /**
+     * Returns the key that uniquely identifies a file, whatever the path used to reach it
+     *
+     * @param path the path to the file
+     * @param attrs the file attributes
+     * @return the file key if the file system provides one, the absolute path of the file otherwise
+     */
+    private static Object getKey(Path path, BasicFileAttributes attrs) {
+      return (attrs.fileKey() != null) ? attrs.fileKey() : path.toAbsolutePath().normalize();
+    }
   }
 
   /**
@@ -487,8 +920,12 @@ public final class Cli {
    * @param options the options this program takes
    */
   private void showHelpAndExit(Options options, OutputStream output, int exitCode) {
+    flushOut();
     String syntax =
-        "yamllint [-h] [-v] [-c <config_file> | -d <config_data>] [-f <format>] [--no-warnings] [-s] FILE_OR_DIR ...";
+        "yamllint [-h] [-v] [-c <config_file> | -d <config_data>] [-f <format>] [--no-warnings]"
+            + " [--fail-fast] [--max-problems-per-file <max>] [--max-problems-per-rule <max>]"
+            + " [-j <N>] [--read-jobs <N>] [--pipeline-stats] [--summary]"
+            + " [--files-from <file> [-0]] [--list-files] [-s] [FILE_OR_DIR ...]";
     HelpFormatter formatter = new HelpFormatter();
     // Show the options in the order they were added
     formatter.setOptionComparator((Option o1, Option o2) -> 1);
@@ -518,7 +955,7 @@ public final class Cli {
           null);
     }
     pw.flush();
-    System.exit(exitCode);
+    exit(exitCode);
   }
 
   /**
@@ -533,7 +970,67 @@ public final class Cli {
       err("");
       showHelpAndExit(null, errout, 1);
     }
-    System.exit(1);
+    exit(1);
+  }
+
+  /**
+   * Flushes the standard output and terminates the program
+   *
+   * @param status the exit status
+   */
+  private void exit(int status) {
+    flushOut();
+    System.exit(status);
+  }
+
+  /**
+   * Returns the buffered writer to the standard output. Messages are encoded with the default
+   * charset, or UTF-8 for the JSON Lines, Checkstyle and SARIF reports, and written to the standard
+   * output stream in large chunks.
+   *
+   * @return the writer to the standard output
+   */
+  private Writer getWriter() {
+    if (writer == null) {
+      writer = new BufferedWriter(new OutputStreamWriter(stdout, charset), OUTPUT_BUFFER_SIZE);
+    }
+    return writer;
+  }
+
+  /**
+   * Returns a writer of the lint report to the standard output
+   *
+   * @param format the output format
+   * @param conf the linter configuration
+   * @return a report writer
+   * @throws IOException if the report writer cannot be created
+   */
+  private ReportWriter newReportWriter(OutputFormat format, YamlLintConfig conf)
+      throws IOException {
+    Writer out = getWriter();
+    return switch (format) {
+      case JSON_LINES -> new JsonLinesReportWriter(out);
+      case CHECKSTYLE -> new CheckstyleReportWriter(out, charset);
+      case SARIF -> new SarifReportWriter(out, conf);
+      default -> (file, problems) -> {
+        Format.format(file, problems, format, out);
+        out.write(System.lineSeparator());
+      };
+    };
+  }
+
+  /**
+   * Writes the problems found in a file to the standard output
+   *
+   * @param file the name of the file
+   * @param problems the problems found in the file, at least one
+   */
+  private void out(String file, List<LintProblem> problems) {
+    try {
+      reportWriter.write(file, problems);
+    } catch (IOException e) {
+      outputFailed(e);
+    }
   }
 
   /**
@@ -543,20 +1040,45 @@ public final class Cli {
    */
   private void out(String message) {
     try {
-      stdout.write(message.getBytes());
-      stdout.write(System.lineSeparator().getBytes());
+      getWriter().write(message);
+      getWriter().write(System.lineSeparator());
     } catch (IOException e) {
-      e.printStackTrace(new PrintWriter(errout));
-      System.exit(1);
+      outputFailed(e);
     }
   }
 
+  /** Writes to the standard output what has been buffered so far */
+  private void flushOut() {
+    if (writer != null) {
+      try {
+        writer.flush();
+      } catch (IOException e) {
+        outputFailed(e);
+      }
+    }
+  }
+
+  /**
+   * Terminates the program when the standard output cannot be written
+   *
+   * @param e the error
+   */
+  private void outputFailed(IOException e) {
+    writer = null;
+    PrintWriter pw = new PrintWriter(errout);
+    e.printStackTrace(pw);
+    pw.flush();
+    System.exit(1);
+  }
+
   /**
    * WWrites a message to the error output
    *
    * @param message a message
    */
   private void err(String message) {
+    // Keep the order of the messages written to both outputs
+    flushOut();
     try {
       errout.write(message.getBytes());
       errout.write(System.lineSeparator().getBytes());
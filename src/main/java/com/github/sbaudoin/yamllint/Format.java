@@ -15,8 +15,11 @@
  */
 package com.github.sbaudoin.yamllint;
 
-import java.util.Arrays;
-import java.util.Collections;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /** Helper class to format the output of this linter */
@@ -31,6 +34,12 @@ public class Format {
     COLORED,
     /** "github" output format */
     GITHUB,
+    /** JSON Lines output format, written by a {@link JsonLinesReportWriter} */
+    JSON_LINES,
+    /** Checkstyle XML output format, written by a {@link CheckstyleReportWriter} */
+    CHECKSTYLE,
+    /** SARIF output format, written by a {@link SarifReportWriter} */
+    SARIF,
     /** Automatic output format */
     AUTO
   }
@@ -71,6 +80,9 @@ public class Format {
   /** ANSI code for white text color */
   public static final String ANSI_WHITE = "\u001B[37m";
 
+  /** Padding used to align the columns of the standard formats */
+  private static final String SPACES = " ".repeat(64);
+
   /** Hide default constructor */
   private Format() {}
 
@@ -83,47 +95,108 @@ public class Format {
    * @return the formatted list of problems
    */
   public static String format(String file, List<LintProblem> problems, OutputFormat format) {
-    // Get actual format to use
+    StringBuilder out = new StringBuilder();
+    try {
+      format(file, problems, format, out);
+    } catch (IOException e) {
+      // Cannot happen with a StringBuilder
+      throw new UncheckedIOException(e);
+    }
+    return out.toString();
+  }
+
+  /**
+   * Format a list of problems in the passed format and writes them to the passed output. Nothing is
+   * written if there is no problem; otherwise the output does not end with a line separator, except
+   * for the standard and colored formats, that end with an empty line. The JSON Lines, Checkstyle
+   * and SARIF formats produce a complete report made of this file only: use a {@link ReportWriter}
+   * to report several files. The Checkstyle report declares the UTF-8 encoding, that <var>out</var>
+   * must then use if it is encoded.
+   *
+   * @param file path to the file that presents the passed problems
+   * @param problems a list of problems to be formatted
+   * @param format the output format
+   * @param out where to write the formatted problems, typically a buffered {@code Writer}
+   * @throws IOException if an error occurs writing to <var>out</var>
+   */
+  public static void format(
+      String file, List<LintProblem> problems, OutputFormat format, Appendable out)
+      throws IOException {
+    if (problems.isEmpty()) {
+      return;
+    }
+
+    // Get actual format to use and its layout
     OutputFormat outFormat = resolveFormat(format);
+    if (outFormat == OutputFormat.JSON_LINES
+        || outFormat == OutputFormat.CHECKSTYLE
+        || outFormat == OutputFormat.SARIF) {
+      formatReport(file, problems, outFormat, out);
+      return;
+    }
+    Layout layout =
+        switch (outFormat) {
+          case PARSABLE -> Format::appendParsable;
+          case GITHUB -> Format::appendGithub;
+          case STANDARD -> (line, problem, filename) -> appendStandard(line, problem);
+          case COLORED -> (line, problem, filename) -> appendStandardColor(line, problem);
+          default -> throw new IllegalArgumentException("Unsupported output format");
+        };
 
-    StringBuilder out = new StringBuilder();
+    // Problems are formatted in a single buffer, directly in the output if it is a StringBuilder
+    StringBuilder line = (out instanceof StringBuilder sb) ? sb : new StringBuilder(128);
+    if (outFormat == OutputFormat.STANDARD) {
+      line.append(file).append(System.lineSeparator());
+    } else if (outFormat == OutputFormat.COLORED) {
+      line.append(ANSI_UNDERLINED).append(file).append(ANSI_RESET).append(System.lineSeparator());
+    }
     boolean first = true;
     for (LintProblem problem : problems) {
       if (!first) {
-        out.append(System.lineSeparator());
-      }
-      switch (outFormat) {
-        case PARSABLE:
-          out.append(parsable(problem, file));
-          break;
-        case GITHUB:
-          out.append(github(problem, file));
-          break;
-        case STANDARD:
-          if (first) {
-            out.append(file).append(System.lineSeparator());
-          }
-          out.append(standard(problem));
-          break;
-        case COLORED:
-          if (first) {
-            out.append(ANSI_UNDERLINED)
-                .append(file)
-                .append(ANSI_RESET)
-                .append(System.lineSeparator());
-          }
-          out.append(standardColor(problem));
-          break;
-        default:
-          throw new IllegalArgumentException("Unsupported output format");
+        line.append(System.lineSeparator());
       }
+      layout.append(line, problem, file);
       first = false;
+      if (line != out) {
+        out.append(line);
+        line.setLength(0);
+      }
     }
-    if (!first && (outFormat == OutputFormat.STANDARD || outFormat == OutputFormat.COLORED)) {
+    if (outFormat == OutputFormat.STANDARD || outFormat == OutputFormat.COLORED) {
       out.append(System.lineSeparator());
     }
+  }
 
-    return out.toString();
+  /**
+   * Writes a complete report, made of the passed file only, in one of the report formats
+   *
+   * @param file path to the file that presents the passed problems
+   * @param problems a list of problems to be formatted
+   * @param format the report format
+   * @param out where to write the report
+   * @throws IOException if an error occurs writing to <var>out</var>
+   */
+  private static void formatReport(
+      String file, List<LintProblem> problems, OutputFormat format, Appendable out)
+      throws IOException {
+    ReportWriter writer;
+    StringWriter xml = null;
+    if (format == OutputFormat.JSON_LINES) {
+      writer = new JsonLinesReportWriter(out);
+    } else if (format == OutputFormat.SARIF) {
+      writer = new SarifReportWriter(out, null);
+    } else {
+      // The XML stream writer needs a Writer
+      xml = new StringWriter();
+      writer =
+          new CheckstyleReportWriter((out instanceof Writer w) ? w : xml, StandardCharsets.UTF_8);
+    }
+    writer.start();
+    writer.write(file, problems);
+    writer.end();
+    if (xml != null && !(out instanceof Writer)) {
+      out.append(xml.getBuffer());
+    }
   }
 
   /**
@@ -134,14 +207,7 @@ public class Format {
    * @return the parsable representation of the problem
    */
   public static String parsable(LintProblem problem, String filename) {
-    return "%1$s:%2$d:%3$d:%4$s:%5$s:%6$s"
-        .formatted(
-            filename,
-            problem.getLine(),
-            problem.getColumn(),
-            (problem.getRuleId() == null) ? "" : problem.getRuleId(),
-            (problem.getLevel() == null) ? "" : problem.getLevel(),
-            problem.getDesc());
+    return appendParsable(new StringBuilder(), problem, filename).toString();
   }
 
   /**
@@ -152,14 +218,7 @@ public class Format {
    * @return the GitHub representation of the problem
    */
   public static String github(LintProblem problem, String filename) {
-    return "::%5$s file=%1$s,line=%2$d,col=%3$s::%4$s%6$s"
-        .formatted(
-            filename,
-            problem.getLine(),
-            problem.getColumn(),
-            (problem.getRuleId() == null) ? "" : "[" + problem.getRuleId() + "] ",
-            (problem.getLevel() == null) ? "" : problem.getLevel(),
-            problem.getDesc());
+    return appendGithub(new StringBuilder(), problem, filename).toString();
   }
 
   /**
@@ -169,42 +228,110 @@ public class Format {
    * @return the standard representation of the problem
    */
   public static String standard(LintProblem problem) {
-    StringBuilder line = new StringBuilder();
+    return appendStandard(new StringBuilder(), problem).toString();
+  }
 
-    line.append("  ").append(problem.getLine()).append(":").append(problem.getColumn());
-    line.append(getFiller(Math.max(12 - line.length(), 0)));
+  /**
+   * Returns the colorized standard output of a problem
+   *
+   * @param problem the problem
+   * @return the colorized standard representation of the problem
+   */
+  public static String standardColor(LintProblem problem) {
+    return appendStandardColor(new StringBuilder(), problem).toString();
+  }
+
+  /**
+   * Appends the parsable output of a problem
+   *
+   * @param line the buffer to append to
+   * @param problem the problem
+   * @param filename the name of the file where the problem was found
+   * @return <var>line</var>
+   */
+  private static StringBuilder appendParsable(
+      StringBuilder line, LintProblem problem, String filename) {
+    line.append(filename)
+        .append(':')
+        .append(problem.getLine())
+        .append(':')
+        .append(problem.getColumn())
+        .append(':');
+    if (problem.getRuleId() != null) {
+      line.append(problem.getRuleId());
+    }
+    line.append(':');
     if (problem.getLevel() != null) {
       line.append(problem.getLevel());
     }
-    line.append(getFiller(Math.max(21 - line.length(), 0)));
-    line.append(problem.getDesc());
-    if (problem.getRuleId() != null) {
-      line.append("  (").append(problem.getRuleId()).append(")");
+    return line.append(':').append(problem.getDesc());
+  }
+
+  /**
+   * Appends the GitHub output style of a problem
+   *
+   * @param line the buffer to append to
+   * @param problem the problem
+   * @param filename the name of the file where the problem was found
+   * @return <var>line</var>
+   */
+  private static StringBuilder appendGithub(
+      StringBuilder line, LintProblem problem, String filename) {
+    line.append("::");
+    if (problem.getLevel() != null) {
+      line.append(problem.getLevel());
     }
-    if (problem.getExtraDesc() != null) {
-      Arrays.stream(problem.getExtraDesc().split("\n"))
-          .forEach(l -> line.append(System.lineSeparator()).append(getFiller(21)).append(l));
+    line.append(" file=")
+        .append(filename)
+        .append(",line=")
+        .append(problem.getLine())
+        .append(",col=")
+        .append(problem.getColumn())
+        .append("::");
+    if (problem.getRuleId() != null) {
+      line.append('[').append(problem.getRuleId()).append("] ");
     }
-
-    return line.toString();
+    return line.append(problem.getDesc());
   }
 
   /**
-   * Returns the colorized standard output of a problem
+   * Appends the standard output of a problem
    *
+   * @param line the buffer to append to
    * @param problem the problem
-   * @return the colorized standard representation of the problem
+   * @return <var>line</var>
    */
-  public static String standardColor(LintProblem problem) {
-    StringBuilder line = new StringBuilder();
+  private static StringBuilder appendStandard(StringBuilder line, LintProblem problem) {
+    int start = line.length();
+    line.append("  ").append(problem.getLine()).append(':').append(problem.getColumn());
+    pad(line, start + 12);
+    if (problem.getLevel() != null) {
+      line.append(problem.getLevel());
+    }
+    pad(line, start + 21);
+    line.append(problem.getDesc());
+    if (problem.getRuleId() != null) {
+      line.append("  (").append(problem.getRuleId()).append(')');
+    }
+    return appendExtraDesc(line, problem);
+  }
 
+  /**
+   * Appends the colorized standard output of a problem
+   *
+   * @param line the buffer to append to
+   * @param problem the problem
+   * @return <var>line</var>
+   */
+  private static StringBuilder appendStandardColor(StringBuilder line, LintProblem problem) {
+    int start = line.length();
     line.append("  ")
         .append(ANSI_FAINT)
         .append(problem.getLine())
-        .append(":")
+        .append(':')
         .append(problem.getColumn())
         .append(ANSI_RESET);
-    line.append(getFiller(Math.max(20 - line.length(), 0)));
+    pad(line, start + 20);
     if (problem.getLevel() != null) {
       if (Linter.WARNING_LEVEL.equals(problem.getLevel())) {
         line.append(ANSI_YELLOW).append(problem.getLevel()).append(ANSI_RESET);
@@ -214,22 +341,62 @@ public class Format {
         line.append(problem.getLevel());
       }
     }
-    line.append(getFiller(Math.max(38 - line.length(), 0)));
+    pad(line, start + 38);
     line.append(problem.getDesc());
     if (problem.getRuleId() != null) {
       line.append("  ")
           .append(ANSI_FAINT)
-          .append("(")
+          .append('(')
           .append(problem.getRuleId())
-          .append(")")
+          .append(')')
           .append(ANSI_RESET);
     }
-    if (problem.getExtraDesc() != null) {
-      Arrays.stream(problem.getExtraDesc().split("\n"))
-          .forEach(l -> line.append(System.lineSeparator()).append(getFiller(21)).append(l));
+    return appendExtraDesc(line, problem);
+  }
+
+  /**
+   * Appends the extra description of a problem, if any, one line at a time and indented
+   *
+   * @param line the buffer to append to
+   * @param problem the problem
+   * @return <var>line</var>
+   */
+  private static StringBuilder appendExtraDesc(StringBuilder line, LintProblem problem) {
+    String extraDesc = problem.getExtraDesc();
+    if (extraDesc == null) {
+      return line;
     }
+    // Same lines as extraDesc.split("\n"): trailing empty lines are dropped
+    if (extraDesc.isEmpty()) {
+      line.append(System.lineSeparator()).append(SPACES, 0, 21);
+      return line;
+    }
+    int end = extraDesc.length();
+    while (end > 0 && extraDesc.charAt(end - 1) == '\n') {
+      end--;
+    }
+    for (int from = 0; from < end; ) {
+      int to = extraDesc.indexOf('\n', from);
+      if (to == -1 || to > end) {
+        to = end;
+      }
+      line.append(System.lineSeparator()).append(SPACES, 0, 21).append(extraDesc, from, to);
+      from = to + 1;
+    }
+    return line;
+  }
 
-    return line.toString();
+  /**
+   * Appends spaces until the buffer reaches the given length. Nothing is appended if it is already
+   * longer.
+   *
+   * @param line the buffer to append to
+   * @param length the length to reach
+   */
+  private static void pad(StringBuilder line, int length) {
+    for (int n = length - line.length(); n > 0; n -= SPACES.length()) {
+      line.append(SPACES, 0, Math.min(n, SPACES.length()));
+    }
   }
 
   /**
@@ -252,7 +419,7 @@ public class Format {
    * @return a string containing the indicated number of spaces
    */
   public static String getFiller(int length) {
-    return repeat(length, " ");
+    return (length <= SPACES.length()) ? SPACES.substring(0, length) : repeat(length, " ");
   }
 
   /**
@@ -263,7 +430,20 @@ public class Format {
    * @return <var>s</var> repeated <var>n</var> times
    */
   public static String repeat(int n, String s) {
-    return String.join("", Collections.nCopies(n, s));
+    return s.repeat(n);
+  }
+
+  /** How a problem is laid out */
+  @FunctionalInterface
+  private interface Layout {
+    /**
+     * Appends a problem
+     *
+     * @param line the buffer to append to
+     * @param problem the problem
+     * @param filename the name of the file where the problem was found
+     */
+    void append(StringBuilder line, LintProblem problem, String filename);
   }
 
   /**
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import java.io.IOException;
+
+/** Minimal JSON writing helpers for the JSON based report writers */
+final class Json {
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  /** Hide default constructor */
+  private Json() {}
+
+  /**
+   * Appends a string as a JSON string literal, or <code>null</code>
+   *
+   * @param out where to append the string
+   * @param s the string to be appended, may be <code>null</code>
+   * @throws IOException if an error occurs writing to <var>out</var>
+   */
+  static void appendString(Appendable out, String s) throws IOException {
+    if (s == null) {
+      out.append("null");
+      return;
+    }
+    out.append('"');
+    // Unescaped runs of characters are appended at once
+    int start = 0;
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c == '"' || c == '\\' || c < 0x20) {
+        out.append(s, start, i);
+        switch (c) {
+          case '"' -> out.append("\\\"");
+          case '\\' -> out.append("\\\\");
+          case '\n' -> out.append("\\n");
+          case '\r' -> out.append("\\r");
+          case '\t' -> out.append("\\t");
+          default -> out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+        }
+        start = i + 1;
+      }
+    }
+    out.append(s, start, s.length()).append('"');
+  }
+
+  /**
+   * Appends an integer
+   *
+   * @param out where to append the integer
+   * @param i the integer to be appended
+   * @throws IOException if an error occurs writing to <var>out</var>
+   */
+  static void appendInt(Appendable out, int i) throws IOException {
+    if (out instanceof StringBuilder sb) {
+      sb.append(i);
+    } else {
+      out.append(Integer.toString(i));
+    }
+  }
+}
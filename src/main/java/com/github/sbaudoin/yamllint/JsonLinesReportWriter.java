@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes a report in the <a href="https://jsonlines.org/">JSON Lines</a> format: one JSON object
+ * per problem and per line, such as:
+ *
+ * <pre>
+ * {"file":"file.yaml","line":1,"column":5,"level":"error","rule":"colons","message":"too many spaces before colon"}
+ * </pre>
+ *
+ * <p>The <code>level</code> and <code>rule</code> members are <code>null</code> when unknown (e.g.
+ * no rule for syntax errors).
+ */
+public final class JsonLinesReportWriter implements ReportWriter {
+  private final Appendable out;
+
+  /**
+   * Constructor
+   *
+   * @param out where to write the report, typically a buffered {@code Writer}
+   */
+  public JsonLinesReportWriter(Appendable out) {
+    this.out = out;
+  }
+
+  @Override
+  public void write(String file, List<LintProblem> problems) throws IOException {
+    for (LintProblem problem : problems) {
+      out.append("{\"file\":");
+      Json.appendString(out, file);
+      out.append(",\"line\":");
+      Json.appendInt(out, problem.getLine());
+      out.append(",\"column\":");
+      Json.appendInt(out, problem.getColumn());
+      out.append(",\"level\":");
+      Json.appendString(out, problem.getLevel());
+      out.append(",\"rule\":");
+      Json.appendString(out, problem.getRuleId());
+      out.append(",\"message\":");
+      Json.appendString(out, problem.getDesc());
+      out.append("}\n");
+    }
+  }
+}
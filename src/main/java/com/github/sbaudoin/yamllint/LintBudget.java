@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Time and token budget allowed to lint a single file. A budget is started when created and is
+ * checked between tokens, comments and lines by the linter. When it is exceeded, or when the
+ * current thread is interrupted, {@link #check()} throws an {@link ExceededException}. Interrupts
+ * are honored even if the budget has no time or token limit, except by {@link #UNLIMITED}.
+ */
+class LintBudget {
+  /**
+   * A budget without any limit that also ignores interrupts, for the callers that do not lint under
+   * a budget. Being shared, it is never exceeded.
+   */
+  static final LintBudget UNLIMITED = new LintBudget(0, 0, false);
+
+  private final boolean interruptible;
+  private final long timeout;
+  private final long deadline;
+  private final int maxTokens;
+  private int tokens = 0;
+  private boolean exceeded = false;
+
+  /**
+   * Constructor. The time budget starts right now.
+   *
+   * @param timeout the maximum time in milliseconds allowed to lint the file, 0 meaning no limit
+   * @param maxTokens the maximum number of tokens allowed in the file, 0 meaning no limit
+   */
+  LintBudget(long timeout, int maxTokens) {
+    this(timeout, maxTokens, true);
+  }
+
+  /**
+   * Constructor. The time budget starts right now.
+   *
+   * @param timeout the maximum time in milliseconds allowed to lint the file, 0 meaning no limit
+   * @param maxTokens the maximum number of tokens allowed in the file, 0 meaning no limit
+   * @param interruptible {@code true} if the budget is exceeded when the current thread is
+   *     interrupted
+   */
+  private LintBudget(long timeout, int maxTokens, boolean interruptible) {
+    this.interruptible = interruptible;
+    this.timeout = timeout;
+    this.deadline = (timeout > 0) ? (System.nanoTime() + timeout * 1_000_000L) : 0;
+    this.maxTokens = maxTokens;
+  }
+
+  /**
+   * Creates and starts a budget as defined in the passed configuration
+   *
+   * @param conf a yamllint configuration
+   * @return a new budget, that stops on interrupts even if the configuration does not set any limit
+   */
+  static LintBudget of(YamlLintConfig conf) {
+    return new LintBudget(conf.getTimeout(), conf.getMaxTokens());
+  }
+
+  /**
+   * Tells if this budget has some limit
+   *
+   * @return {@code true} if there is a time or token limit, {@code false} if not
+   */
+  boolean isLimited() {
+    return timeout > 0 || maxTokens > 0;
+  }
+
+  /**
+   * Checks that the time budget is not exceeded
+   *
+   * @throws ExceededException if the budget is exceeded or if the current thread was interrupted
+   */
+  void check() {
+    if (interruptible && Thread.currentThread().isInterrupted()) {
+      throw exceeded("lint interrupted");
+    }
+    if (timeout > 0 && System.nanoTime() - deadline > 0) {
+      throw exceeded("lint timeout (more than %d ms)".formatted(timeout));
+    }
+  }
+
+  /**
+   * Tells if this budget has been exceeded
+   *
+   * @return {@code true} if an {@link ExceededException} has already been thrown by this budget
+   */
+  boolean isExceeded() {
+    return exceeded;
+  }
+
+  /**
+   * Marks this budget as exceeded and returns the exception to be thrown
+   *
+   * @param message a description of the exceeded limit
+   * @return the exception to be thrown
+   */
+  private ExceededException exceeded(String message) {
+    exceeded = true;
+    return new ExceededException(message);
+  }
+
+  /**
+   * Counts a new token and checks that the budget is not exceeded
+   *
+   * @throws ExceededException if the budget is exceeded or if the current thread was interrupted
+   */
+  void checkToken() {
+    if (maxTokens > 0 && ++tokens > maxTokens) {
+      throw exceeded("too many tokens (more than %d)".formatted(maxTokens));
+    }
+    check();
+  }
+
+  /**
+   * Returns a reader that checks this budget each time some characters are read from the passed
+   * reader
+   *
+   * @param in a reader
+   * @return a reader that throws an {@link ExceededException} when this budget is exceeded
+   */
+  Reader wrap(Reader in) {
+    if (!interruptible && !isLimited()) {
+      return in;
+    }
+    return new FilterReader(in) {
+      @Override
+      public int read() throws IOException {
+        check();
+        return super.read();
+      }
+
+      @Override
+      public int read(char[] cbuf, int off, int len) throws IOException {
+        check();
+        return super.read(cbuf, off, len);
+      }
+    };
+  }
+
+  /** Exception thrown when a lint budget is exceeded */
+  static class ExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor
+     *
+     * @param message a description of the exceeded limit
+     */
+    ExceededException(String message) {
+      super(message);
+    }
+  }
+}
@@ -0,0 +1,610 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A pipeline that lints files in four stages connected by bounded queues, so that disk latency,
+ * linting and output overlap:
+ *
+ * <ol>
+ *   <li>discovery: a single thread finds the files to be linted
+ *   <li>read: the files are read by a pool of threads or, if the runtime supports virtual threads
+ *       (Java 21+), each by its own virtual thread, so that any number of slow reads can be waiting
+ *       without tuning the number of read threads
+ *   <li>lint: a pool of threads lints the files
+ *   <li>write: the calling thread outputs the results, in the order the files were found, put back
+ *       in order by a {@link ReorderBuffer}
+ * </ol>
+ *
+ * The number of files in the pipeline is bounded, whatever the number of files to be linted. Among
+ * the files waiting to be read or linted, the largest ones are processed first so that a big file
+ * found late does not end up running alone while the other threads are idle.
+ */
+final class LintPipeline {
+  /** Marks the end of a queue, processed after all files */
+  private static final Item END = new Item(-1, null, -1);
+
+  /** Largest files first, then in the order they were found */
+  private static final Comparator<Item> LARGEST_FIRST =
+      Comparator.comparingLong((Item item) -> item.size)
+          .reversed()
+          .thenComparingLong(item -> item.index);
+
+  /**
+   * Supplier of executors that run each task in a new virtual thread, <code>null</code> if the
+   * runtime does not support virtual threads
+   */
+  private static final Supplier<ExecutorService> VIRTUAL_THREADS = getVirtualThreadExecutors();
+
+  private final int readJobs;
+  private final int lintJobs;
+  // Executors that read each file in its own thread, null to read the files with a pool of threads
+  private final Supplier<ExecutorService> readTasks;
+  // Number of read threads or, when files are read by their own thread, discovery, still running
+  private final AtomicInteger readers = new AtomicInteger();
+  private final Semaphore window;
+  private final Stage discoveryStage;
+  private final Stage readStage;
+  private final Stage lintStage;
+  private final Stage writeStage;
+  private final ReorderBuffer<Item> results;
+  private volatile boolean stopped = false;
+  private volatile Throwable discoveryFailure = null;
+
+  /**
+   * Constructor. Files are read by their own virtual thread if the runtime supports them.
+   *
+   * @param readJobs the number of threads reading files if the runtime does not support virtual
+   *     threads
+   * @param lintJobs the number of threads linting files
+   * @param queueCapacity the capacity of the queues between the discovery, read and lint stages
+   * @param window the maximum number of files that can be in the pipeline at the same time,
+   *     including the files waiting to be written
+   */
+  LintPipeline(int readJobs, int lintJobs, int queueCapacity, int window) {
+    this(readJobs, lintJobs, queueCapacity, window, VIRTUAL_THREADS);
+  }
+
+  /**
+   * Constructor
+   *
+   * @param readJobs the number of threads reading files, ignored if <var>readTasks</var> is not
+   *     <code>null</code>
+   * @param lintJobs the number of threads linting files
+   * @param queueCapacity the capacity of the queues between the discovery, read and lint stages
+   * @param window the maximum number of files that can be in the pipeline at the same time,
+   *     including the files waiting to be written
+   * @param readTasks supplier of the executor used to read each file in its own thread, bounded by
+   *     <var>window</var> only, or <code>null</code> to read the files with <var>readJobs</var>
+   *     threads
+   */
+  LintPipeline(
+      int readJobs,
+      int lintJobs,
+      int queueCapacity,
+      int window,
+      Supplier<ExecutorService> readTasks) {
+    this.readJobs = readJobs;
+    this.lintJobs = lintJobs;
+    this.readTasks = readTasks;
+    this.window = new Semaphore(window);
+    discoveryStage = new Stage("discovery", 1, -1);
+    readStage =
+        (readTasks == null) ? new Stage("read", readJobs, queueCapacity) : new Stage("read", 0, -1);
+    lintStage = new Stage("lint", lintJobs, queueCapacity);
+    // As the window is the capacity of the results buffer, the lint threads never wait for room
+    writeStage = new Stage("write", 1, -1);
+    results = new ReorderBuffer<>(window);
+  }
+
+  /**
+   * Runs the pipeline and returns once all files have been written or the writer asked to stop
+   *
+   * @param discoverer the discovery stage: it calls the passed sink with each file found and stops
+   *     as soon as the sink returns <code>false</code>
+   * @param reader the read stage
+   * @param linter the lint stage
+   * @param writer the write stage, called with the files in the order they were found. It returns
+   *     <code>false</code> if the other files do not need to be written.
+   * @throws RuntimeException any exception thrown by one of the stages
+   */
+  void run(Consumer<Sink> discoverer, ReadStep reader, LintStep linter, Predicate<Item> writer) {
+    ExecutorService discoveryPool = Executors.newSingleThreadExecutor(threadFactory("discovery"));
+    ExecutorService readPool =
+        (readTasks == null)
+            ? Executors.newFixedThreadPool(readJobs, threadFactory("read"))
+            : readTasks.get();
+    ExecutorService lintPool = Executors.newFixedThreadPool(lintJobs, threadFactory("lint"));
+    try {
+      if (readTasks == null) {
+        readers.set(readJobs);
+        for (int i = 0; i < readJobs; i++) {
+          readPool.execute(() -> read(reader));
+        }
+      } else {
+        readers.set(1);
+      }
+      discoveryPool.execute(() -> discover(discoverer, reader, readPool));
+      for (int i = 0; i < lintJobs; i++) {
+        lintPool.execute(() -> lint(linter));
+      }
+      write(writer);
+    } finally {
+      stopped = true;
+      discoveryPool.shutdownNow();
+      readPool.shutdownNow();
+      lintPool.shutdownNow();
+    }
+  }
+
+  /**
+   * Returns the metrics of the stages of this pipeline
+   *
+   * @return the discovery, read, lint and write stages
+   */
+  List<Stage> getStages() {
+    return List.of(discoveryStage, readStage, lintStage, writeStage);
+  }
+
+  /**
+   * Discovery stage loop
+   *
+   * @param discoverer the function that finds the files
+   * @param reader the function that reads the files
+   * @param readPool the executor of the read stage
+   */
+  private void discover(Consumer<Sink> discoverer, ReadStep reader, ExecutorService readPool) {
+    long[] index = {0};
+    try {
+      discoverer.accept(
+          (path, size) -> {
+            if (stopped) {
+              return false;
+            }
+            try {
+              if (!window.tryAcquire()) {
+                long start = System.nanoTime();
+                window.acquire();
+                discoveryStage.blockedNanos.add(System.nanoTime() - start);
+              }
+              discoveryStage.items.increment();
+              Item item = new Item(index[0]++, path, size);
+              if (readTasks == null) {
+                readStage.put(item);
+              } else {
+                // One thread per file: the window is the only bound
+                readers.incrementAndGet();
+                readPool.execute(() -> readFile(reader, item));
+              }
+              return true;
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+              return false;
+            } catch (RejectedExecutionException e) {
+              // The pipeline is stopped
+              readers.decrementAndGet();
+              return false;
+            }
+          });
+    } catch (RuntimeException | Error e) {
+      discoveryFailure = e;
+    } finally {
+      results.finish(index[0]);
+      try {
+        if (readTasks == null) {
+          for (int i = 0; i < readJobs; i++) {
+            readStage.put(END);
+          }
+        } else {
+          readerDone();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Read stage loop, run by each thread of the read pool
+   *
+   * @param reader the function that reads the files
+   */
+  private void read(ReadStep reader) {
+    try {
+      for (Item item = readStage.take(); item != END; item = readStage.take()) {
+        readContent(reader, item);
+        lintStage.put(item);
+      }
+      readerDone();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Read stage task, run by the own thread of a file
+   *
+   * @param reader the function that reads the files
+   * @param item the file to be read
+   */
+  private void readFile(ReadStep reader, Item item) {
+    try {
+      readContent(reader, item);
+      lintStage.put(item);
+      readerDone();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Reads a file
+   *
+   * @param reader the function that reads the files
+   * @param item the file to be read
+   */
+  private void readContent(ReadStep reader, Item item) {
+    long start = System.nanoTime();
+    try {
+      item.content = reader.read(item.path);
+    } catch (IOException e) {
+      item.unreadable = true;
+    } catch (RuntimeException | Error e) {
+      item.failure = e;
+    }
+    readStage.done(start);
+  }
+
+  /**
+   * Records that a reader is done and, if it is the last one, ends the lint stage
+   *
+   * @throws InterruptedException if interrupted while waiting for room in the lint queue
+   */
+  private void readerDone() throws InterruptedException {
+    if (readers.decrementAndGet() == 0) {
+      for (int i = 0; i < lintJobs; i++) {
+        lintStage.put(END);
+      }
+    }
+  }
+
+  /**
+   * Lint stage loop
+   *
+   * @param linter the function that lints the files
+   */
+  private void lint(LintStep linter) {
+    try {
+      for (Item item = lintStage.take(); item != END; item = lintStage.take()) {
+        long start = System.nanoTime();
+        if (!item.unreadable && item.failure == null) {
+          try {
+            item.problems = linter.lint(item.path, item.content);
+          } catch (RuntimeException | Error e) {
+            item.failure = e;
+          }
+        }
+        item.content = null;
+        lintStage.done(start);
+        if (!results.offer(item.index, item)) {
+          long wait = System.nanoTime();
+          results.put(item.index, item);
+          writeStage.blockedNanos.add(System.nanoTime() - wait);
+        }
+        writeStage.maxQueueSize.accumulateAndGet(results.size(), Math::max);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Write stage loop
+   *
+   * @param writer the function that writes the files
+   */
+  private void write(Predicate<Item> writer) {
+    try {
+      for (Item item = results.take(); item != null; item = results.take()) {
+        if (item.failure != null) {
+          throwUnchecked(item.failure);
+        }
+        long start = System.nanoTime();
+        boolean goOn = writer.test(item);
+        writeStage.done(start);
+        window.release();
+        if (!goOn) {
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted while writing lint results");
+    }
+    if (discoveryFailure != null) {
+      throwUnchecked(discoveryFailure);
+    }
+  }
+
+  /**
+   * Rethrows an unchecked exception or error
+   *
+   * @param t a runtime exception or an error
+   */
+  private static void throwUnchecked(Throwable t) {
+    if (t instanceof Error error) {
+      throw error;
+    }
+    throw (RuntimeException) t;
+  }
+
+  /**
+   * Returns a supplier of executors that run each task in a new virtual thread, so that threads
+   * blocked reading slow file systems cost nothing
+   *
+   * @return a supplier of virtual thread executors or <code>null</code> if the Java runtime does
+   *     not support virtual threads (before Java 21)
+   */
+  private static Supplier<ExecutorService> getVirtualThreadExecutors() {
+    try {
+      // Looked up at runtime as this code must still compile and run with Java 17
+      java.lang.reflect.Method method =
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return () -> {
+        try {
+          return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+          throw new IllegalStateException("Cannot create virtual threads", e);
+        }
+      };
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns a factory of daemon threads
+   *
+   * @param stage the name of the stage the threads run
+   * @return a thread factory
+   */
+  private static ThreadFactory threadFactory(String stage) {
+    return runnable -> {
+      Thread thread = new Thread(runnable, "yamllint-" + stage);
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /** The receiver of the files found by the discovery stage */
+  @FunctionalInterface
+  interface Sink {
+    /**
+     * Adds a file to the pipeline
+     *
+     * @param path the path of the file
+     * @param size the size of the file in bytes, 0 if unknown
+     * @return <code>false</code> if no more files are expected, <code>true</code> otherwise
+     */
+    boolean accept(String path, long size);
+  }
+
+  /** The read stage function */
+  @FunctionalInterface
+  interface ReadStep {
+    /**
+     * Reads a file
+     *
+     * @param path the path of the file
+     * @return the content of the file
+     * @throws IOException if the file cannot be read
+     */
+    byte[] read(String path) throws IOException;
+  }
+
+  /** The lint stage function */
+  @FunctionalInterface
+  interface LintStep {
+    /**
+     * Lints a file
+     *
+     * @param path the path of the file
+     * @param content the content of the file
+     * @return the problems found in the file
+     */
+    List<LintProblem> lint(String path, byte[] content);
+  }
+
+  /** A file going through the pipeline */
+  static final class Item {
+    private final long index;
+    private final String path;
+    private final long size;
+    private byte[] content;
+    private List<LintProblem> problems;
+    private boolean unreadable = false;
+    private Throwable failure;
+
+    private Item(long index, String path, long size) {
+      this.index = index;
+      this.path = path;
+      this.size = size;
+    }
+
+    /**
+     * Returns the path of the file
+     *
+     * @return the path of the file
+     */
+    String getPath() {
+      return path;
+    }
+
+    /**
+     * Returns the problems found in the file
+     *
+     * @return the problems found in the file or <code>null</code> if the file could not be read
+     */
+    List<LintProblem> getProblems() {
+      return unreadable ? null : problems;
+    }
+  }
+
+  /** A stage of the pipeline and its metrics */
+  static final class Stage {
+    private final String name;
+    private final int threads;
+    private final BlockingQueue<Item> queue;
+    // Room left in the queue, null if not bounded
+    private final Semaphore slots;
+    private final LongAdder items = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private final LongAdder blockedNanos = new LongAdder();
+    private final AtomicInteger maxQueueSize = new AtomicInteger(0);
+
+    /**
+     * Constructor
+     *
+     * @param name the name of the stage
+     * @param threads the number of threads of the stage
+     * @param capacity the capacity of the input queue of the stage, 0 if not bounded, -1 if the
+     *     stage has no input queue
+     */
+    private Stage(String name, int threads, int capacity) {
+      this.name = name;
+      this.threads = threads;
+      this.queue = (capacity < 0) ? null : new PriorityBlockingQueue<>(11, LARGEST_FIRST);
+      this.slots = (capacity > 0) ? new Semaphore(capacity) : null;
+    }
+
+    /**
+     * Puts an item in the input queue of this stage, waiting for space if it is full
+     *
+     * @param item an item
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private void put(Item item) throws InterruptedException {
+      if (slots != null && !slots.tryAcquire()) {
+        long start = System.nanoTime();
+        slots.acquire();
+        blockedNanos.add(System.nanoTime() - start);
+      }
+      queue.put(item);
+      maxQueueSize.accumulateAndGet(queue.size(), Math::max);
+    }
+
+    /**
+     * Takes the next item of the input queue of this stage, waiting for one if it is empty
+     *
+     * @return the next item
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private Item take() throws InterruptedException {
+      Item item = queue.take();
+      if (slots != null) {
+        slots.release();
+      }
+      return item;
+    }
+
+    /**
+     * Records that an item has been processed
+     *
+     * @param start the time the processing started, as returned by {@link System#nanoTime()}
+     */
+    private void done(long start) {
+      items.increment();
+      busyNanos.add(System.nanoTime() - start);
+    }
+
+    /**
+     * Returns the name of this stage
+     *
+     * @return the name of this stage
+     */
+    String getName() {
+      return name;
+    }
+
+    /**
+     * Returns the number of threads of this stage
+     *
+     * @return the number of threads of this stage, 0 if each file is processed by its own thread
+     */
+    int getThreads() {
+      return threads;
+    }
+
+    /**
+     * Returns the number of files processed by this stage
+     *
+     * @return the number of files processed by this stage
+     */
+    long getItems() {
+      return items.sum();
+    }
+
+    /**
+     * Returns the time spent by the threads of this stage processing files
+     *
+     * @return the cumulated processing time, in milliseconds
+     */
+    long getBusyTime() {
+      return TimeUnit.NANOSECONDS.toMillis(busyNanos.sum());
+    }
+
+    /**
+     * Returns the time the previous stage waited for room in the input queue of this stage or, for
+     * the discovery stage, the time it waited for room in the pipeline
+     *
+     * @return the cumulated waiting time, in milliseconds
+     */
+    long getBlockedTime() {
+      return TimeUnit.NANOSECONDS.toMillis(blockedNanos.sum());
+    }
+
+    /**
+     * Returns the maximum number of files that waited in the input queue of this stage
+     *
+     * @return the maximum size of the input queue (the results buffer for the write stage), 0 for
+     *     the discovery stage that has none
+     */
+    int getMaxQueueSize() {
+      return maxQueueSize.get();
+    }
+
+    @Override
+    public String toString() {
+      return "%s: %s, %d file(s), busy %d ms, queue max %d, blocked %d ms"
+          .formatted(
+              name,
+              (threads == 0) ? "one thread per file" : (threads + " thread(s)"),
+              getItems(),
+              getBusyTime(),
+              getMaxQueueSize(),
+              getBlockedTime());
+    }
+  }
+}
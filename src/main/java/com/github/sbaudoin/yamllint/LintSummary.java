@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Summary of a lint run: the number of problems per level, per rule and per directory, and the
+ * files with the most problems. Problems are counted as they are added and are not retained, so the
+ * memory used does not depend on the number of problems. Problems can be added concurrently by
+ * several threads.
+ */
+public final class LintSummary {
+  /** Default number of files and directories listed in the summary */
+  public static final int DEFAULT_TOP = 10;
+
+  /** Key under which the problems that do not come from a rule (e.g. syntax errors) are counted */
+  public static final String NO_RULE = "(none)";
+
+  /** Orders counts from the highest to the lowest, then by name */
+  private static final Comparator<Map.Entry<String, Long>> HIGHEST_FIRST =
+      Comparator.<Map.Entry<String, Long>>comparingLong(Map.Entry::getValue)
+          .reversed()
+          .thenComparing(Map.Entry::getKey);
+
+  private final int top;
+  private final LongAdder files = new LongAdder();
+  private final LongAdder filesWithProblems = new LongAdder();
+  private final LongAdder problems = new LongAdder();
+  private final Map<String, LongAdder> levels = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> rules = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> directories = new ConcurrentHashMap<>();
+  // The files with the most problems so far, the file with the fewest first
+  private final PriorityQueue<Map.Entry<String, Long>> topFiles;
+
+  /**
+   * Constructor
+   *
+   * @param top the number of files and directories listed in the summary
+   */
+  public LintSummary(int top) {
+    this.top = top;
+    this.topFiles = new PriorityQueue<>(top + 1, HIGHEST_FIRST.reversed());
+  }
+
+  /**
+   * Adds the problems found in a file
+   *
+   * @param file the name of the file
+   * @param fileProblems the problems found in the file
+   */
+  public void add(String file, List<LintProblem> fileProblems) {
+    files.increment();
+    if (fileProblems.isEmpty()) {
+      return;
+    }
+    filesWithProblems.increment();
+    problems.add(fileProblems.size());
+    for (LintProblem problem : fileProblems) {
+      count(levels, (problem.getLevel() == null) ? Linter.ERROR_LEVEL : problem.getLevel(), 1);
+      count(rules, (problem.getRuleId() == null) ? NO_RULE : problem.getRuleId(), 1);
+    }
+    String directory = new File(file).getParent();
+    count(directories, (directory == null) ? "." : directory, fileProblems.size());
+    if (top > 0) {
+      synchronized (topFiles) {
+        topFiles.add(new AbstractMap.SimpleImmutableEntry<>(file, (long) fileProblems.size()));
+        if (topFiles.size() > top) {
+          topFiles.poll();
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the number of files added to this summary
+   *
+   * @return the number of files
+   */
+  public long getFileCount() {
+    return files.sum();
+  }
+
+  /**
+   * Returns the number of files added to this summary that have at least one problem
+   *
+   * @return the number of files with problems
+   */
+  public long getFileWithProblemsCount() {
+    return filesWithProblems.sum();
+  }
+
+  /**
+   * Returns the total number of problems
+   *
+   * @return the number of problems
+   */
+  public long getProblemCount() {
+    return problems.sum();
+  }
+
+  /**
+   * Returns the number of problems per level
+   *
+   * @return the number of problems per level, the highest count first
+   */
+  public Map<String, Long> getLevelCounts() {
+    return sort(levels, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns the number of problems per rule. The problems that do not come from a rule are counted
+   * under {@link #NO_RULE}.
+   *
+   * @return the number of problems per rule ID, the highest count first
+   */
+  public Map<String, Long> getRuleCounts() {
+    return sort(rules, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns the files with the most problems
+   *
+   * @return the number of problems of the top files, the highest count first
+   */
+  public Map<String, Long> getTopFiles() {
+    List<Map.Entry<String, Long>> entries;
+    synchronized (topFiles) {
+      entries = new ArrayList<>(topFiles);
+    }
+    entries.sort(HIGHEST_FIRST);
+    Map<String, Long> sorted = new LinkedHashMap<>();
+    entries.forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+    return sorted;
+  }
+
+  /**
+   * Returns the directories whose files have the most problems. Only the files directly in a
+   * directory are counted for this directory.
+   *
+   * @return the number of problems of the top directories, the highest count first
+   */
+  public Map<String, Long> getTopDirectories() {
+    return sort(directories, top);
+  }
+
+  /**
+   * Writes this summary as text
+   *
+   * @param out where to write this summary
+   * @throws IOException if an error occurs writing to <var>out</var>
+   */
+  public void write(Appendable out) throws IOException {
+    String nl = System.lineSeparator();
+    out.append(Long.toString(getProblemCount()))
+        .append(" problem(s) in ")
+        .append(Long.toString(getFileWithProblemsCount()))
+        .append(" of ")
+        .append(Long.toString(getFileCount()))
+        .append(" file(s)")
+        .append(nl);
+    writeCounts(out, "Problems per level:", getLevelCounts());
+    writeCounts(out, "Problems per rule:", getRuleCounts());
+    writeCounts(out, "Top files:", getTopFiles());
+    writeCounts(out, "Top directories:", getTopDirectories());
+  }
+
+  /**
+   * Writes a section of counts, if not empty
+   *
+   * @param out where to write the section
+   * @param title the title of the section
+   * @param counts the counts to be written
+   * @throws IOException if an error occurs writing to <var>out</var>
+   */
+  private static void writeCounts(Appendable out, String title, Map<String, Long> counts)
+      throws IOException {
+    if (counts.isEmpty()) {
+      return;
+    }
+    String nl = System.lineSeparator();
+    out.append(nl).append(title).append(nl);
+    int width = Long.toString(counts.values().iterator().next()).length();
+    for (Map.Entry<String, Long> entry : counts.entrySet()) {
+      String count = Long.toString(entry.getValue());
+      out.append("  ")
+          .append(Format.getFiller(width - count.length()))
+          .append(count)
+          .append("  ")
+          .append(entry.getKey())
+          .append(nl);
+    }
+  }
+
+  /**
+   * Increments a counter
+   *
+   * @param counters the counters
+   * @param key the key of the counter to be incremented
+   * @param n the increment
+   */
+  private static void count(Map<String, LongAdder> counters, String key, long n) {
+    // Avoid the locking of computeIfAbsent once the counter exists
+    LongAdder counter = counters.get(key);
+    if (counter == null) {
+      counter = counters.computeIfAbsent(key, k -> new LongAdder());
+    }
+    counter.add(n);
+  }
+
+  /**
+   * Sorts counters
+   *
+   * @param counters the counters
+   * @param limit the maximum number of counters to be returned
+   * @return the values of the counters, the highest first
+   */
+  private static Map<String, Long> sort(Map<String, LongAdder> counters, int limit) {
+    List<Map.Entry<String, Long>> entries = new ArrayList<>(counters.size());
+    counters.forEach(
+        (key, counter) -> entries.add(new AbstractMap.SimpleImmutableEntry<>(key, counter.sum())));
+    entries.sort(HIGHEST_FIRST);
+    Map<String, Long> sorted = new LinkedHashMap<>();
+    entries.stream().limit(limit).forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+    return sorted;
+  }
+}
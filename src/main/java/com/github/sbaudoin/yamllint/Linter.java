@@ -18,6 +18,7 @@ package com.github.sbaudoin.yamllint;
 import com.github.sbaudoin.yamllint.rules.CommentRule;
 import com.github.sbaudoin.yamllint.rules.LineRule;
 import com.github.sbaudoin.yamllint.rules.Rule;
+import com.github.sbaudoin.yamllint.rules.TokenAnalysis;
 import com.github.sbaudoin.yamllint.rules.TokenRule;
 import java.io.*;
 import java.util.*;
@@ -333,8 +334,18 @@ public class Linter {
               return p1.getMessage().compareTo(p2.getMessage());
             });
 
-    // If the document contains a syntax error, save it
-    LintProblem syntaxError = getSyntaxError(buffer, yaml);
+    LintBudget budget = LintBudget.of(conf);
+    List<LintProblem> cosmeticProblems = getCosmeticProblems(buffer, conf, file, budget);
+
+    // If the document contains a syntax error, save it (unless the maximum number of problems
+    // has already been reached, in which case we already know that the file is wrong, or the
+    // lint budget is already exceeded)
+    LintProblem syntaxError =
+        ((conf.getMaxProblemsPerFile() > 0
+                    && cosmeticProblems.size() > conf.getMaxProblemsPerFile())
+                || budget.isExceeded())
+            ? null
+            : getSyntaxError(buffer, yaml, budget);
     if (syntaxError != null) {
       problems.add(syntaxError);
     }
@@ -343,7 +354,7 @@ public class Linter {
     // it as it is probably redundant (and maybe it's just a 'warning',
     // in which case the script won't even exit with a failure status).
     problems.addAll(
-        getCosmeticProblems(buffer, conf, file).stream()
+        cosmeticProblems.stream()
             .filter(
                 problem ->
                     syntaxError == null
@@ -383,13 +394,26 @@ public class Linter {
    * @return a problem or <code>null</code> if there is no syntax error
    */
   public static LintProblem getSyntaxError(final CharSequence buffer, final Yaml yaml) {
+    return getSyntaxError(buffer, yaml, LintBudget.UNLIMITED);
+  }
+
+  /**
+   * Parses the passed YAML string to detect syntax errors. If an error is met, a problem is return.
+   * If the passed budget is exceeded while parsing, a problem telling so is returned.
+   *
+   * @param buffer a YAML string
+   * @param yaml the YAML parser to use for syntax checking
+   * @param budget the budget allowed to parse the string
+   * @return a problem or <code>null</code> if there is no syntax error
+   */
+  private static LintProblem getSyntaxError(
+      final CharSequence buffer, final Yaml yaml, final LintBudget budget) {
     try {
-      // Need to use loadAll in the event there are multiple documents in the same stream
-      yaml.parse(new CharSequenceReader(buffer))
-          .forEach(
-              o -> {
-                /* Do nothing on purpose, required to have the parser to process each document */
-              });
+      // Need to use loadAll in the event there are multiple documents in the same stream. The
+      // budget is checked when reading the buffer and for each parsing event.
+      yaml.parse(budget.wrap(new CharSequenceReader(buffer))).forEach(o -> budget.check());
+    } catch (LintBudget.ExceededException e) {
+      return getBudgetProblem(e, 1, 1);
     } catch (MarkedYAMLException e) {
       LintProblem problem =
           new LintProblem(
@@ -407,6 +431,16 @@ public class Linter {
    * Returns the list of non-syntax related problems found with the passed YAML string. The file is
    * optional ({@code null}) and is there for filtering the rules to be applied.
    *
+   * <p>If the configuration sets a maximum number of problems per rule, a rule that has reached
+   * this number is not checked any further and a last problem tells that its problems have been
+   * truncated. If the configuration sets a maximum number of problems per file, the analysis stops
+   * as soon as this number is exceeded and a last problem (without rule ID) tells that the file was
+   * not fully checked: the returned list then contains one problem more than the maximum.
+   *
+   * <p>If the configuration sets a timeout or a maximum number of tokens, the analysis also stops
+   * as soon as one of these limits is exceeded (or if the current thread is interrupted) and a last
+   * error level problem tells so.
+   *
    * @param buffer the YAML string to be checked
    * @param conf the YAML lint configuration. Cannot be {@code null}.
    * @param file file supposed to be the passed YAML string. Used to determined the rules to be
@@ -414,11 +448,31 @@ public class Linter {
    * @return a list of problems found on the passed string
    * @throws NullPointerException if <var>conf</var> is {@code null}
    */
-  @SuppressWarnings("unchecked")
   public static List<LintProblem> getCosmeticProblems(
       final CharSequence buffer, final YamlLintConfig conf, final File file) {
     Objects.requireNonNull(conf);
 
+    return getCosmeticProblems(buffer, conf, file, LintBudget.of(conf));
+  }
+
+  /**
+   * Returns the list of non-syntax related problems found with the passed YAML string. If the
+   * passed budget is exceeded, the analysis stops and the problems found so far are returned,
+   * followed by a problem telling that the budget was exceeded.
+   *
+   * @param buffer the YAML string to be checked
+   * @param conf the YAML lint configuration
+   * @param file file supposed to be the passed YAML string. May be {@code null}.
+   * @param budget the budget allowed to check the string
+   * @return a list of problems found on the passed string
+   */
+  @SuppressWarnings("unchecked")
+  private static List<LintProblem> getCosmeticProblems(
+      final CharSequence buffer,
+      final YamlLintConfig conf,
+      final File file,
+      final LintBudget budget) {
+
     List<Rule> rules = conf.getEnabledRules(file);
 
     // Split token rules from line rules
@@ -436,7 +490,13 @@ public class Linter {
             .collect(Collectors.toList());
 
     final Map<String, Object> context = new HashMap<>();
-    tokenRules.forEach(rule -> context.put(rule.getId(), new HashMap<String, Object>()));
+    final TokenAnalysis analysis = new TokenAnalysis();
+    tokenRules.forEach(
+        rule -> {
+          Map<String, Object> ruleContext = new HashMap<>();
+          ruleContext.put(TokenAnalysis.CONTEXT_KEY, analysis);
+          context.put(rule.getId(), ruleContext);
+        });
 
     // Use a cache to store problems and flush it only when a end of line is
     // found. This allows the use of yamllint directive to disable some rules on
@@ -446,11 +506,27 @@ public class Linter {
     DisableLineDirective disabledForLine = new DisableLineDirective(rules);
     DisableLineDirective disabledForNextLine = new DisableLineDirective(rules);
 
+    ProblemCounter counter =
+        new ProblemCounter(conf.getMaxProblemsPerFile(), conf.getMaxProblemsPerRule());
+
     String sBuffer = buffer.toString();
     List<LintProblem> problems = new ArrayList<>();
-    List<Parser.Lined> items = Parser.getTokensOrCommentsOrLines(sBuffer);
+    List<Parser.Lined> items;
+    try {
+      items = Parser.getTokensOrCommentsOrLines(sBuffer, budget);
+    } catch (LintBudget.ExceededException e) {
+      problems.add(getBudgetProblem(e, 1, 1));
+      return problems;
+    }
     for (Parser.Lined elem : items) {
+      try {
+        budget.check();
+      } catch (LintBudget.ExceededException e) {
+        problems.add(getBudgetProblem(e, elem.getLineNo(), 1));
+        break;
+      }
       if (elem instanceof Parser.Token token) {
+        analysis.update(token.getCurr());
         for (Rule rule : tokenRules) {
           Map<Object, Object> ruleConf = (Map<Object, Object>) conf.getRuleConf(rule.getId());
           saveProblemsInCache(
@@ -489,9 +565,18 @@ public class Linter {
         for (LintProblem problem : cache) {
           if (!(disabledForLine.isDisabledByDirective(problem)
               || disabled.isDisabledByDirective(problem))) {
-            problems.add(problem);
+            counter.add(problem, problems);
           }
         }
+        if (counter.isFileTruncated()) {
+          // No need to go further, the problems would not be reported
+          break;
+        }
+
+        // Stop checking the rules that have reached their maximum number of problems
+        tokenRules.removeIf(counter::isRuleTruncated);
+        commentRules.removeIf(counter::isRuleTruncated);
+        lineRules.removeIf(counter::isRuleTruncated);
 
         disabledForLine = disabledForNextLine;
         disabledForNextLine = new DisableLineDirective(rules);
@@ -501,6 +586,22 @@ public class Linter {
     return problems;
   }
 
+  /**
+   * Returns the problem reported when the lint budget of a file is exceeded
+   *
+   * @param e the exception thrown by the budget
+   * @param line the line at which the analysis stopped
+   * @param column the column at which the analysis stopped
+   * @return an error level problem
+   */
+  private static LintProblem getBudgetProblem(
+      LintBudget.ExceededException e, int line, int column) {
+    LintProblem problem =
+        new LintProblem(line, column, e.getMessage() + ", the rest of the file is not checked");
+    problem.setLevel(ERROR_LEVEL);
+    return problem;
+  }
+
   /**
    * Saves in the passed cache the problems with the proper level and rule Id
    *
@@ -518,6 +619,90 @@ public class Linter {
     }
   }
 
+  /**
+   * Counts the problems found in a file and truncates them according to the maximum numbers of
+   * problems per file and per rule
+   */
+  private static class ProblemCounter {
+    private final int maxPerFile;
+    private final int maxPerRule;
+    private final Map<String, Integer> perRule = new HashMap<>();
+    private final Set<String> truncatedRules = new HashSet<>();
+    private int total = 0;
+    private boolean fileTruncated = false;
+
+    /**
+     * Constructor
+     *
+     * @param maxPerFile the maximum number of problems per file, 0 meaning no limit
+     * @param maxPerRule the maximum number of problems per rule, 0 meaning no limit
+     */
+    ProblemCounter(int maxPerFile, int maxPerRule) {
+      this.maxPerFile = maxPerFile;
+      this.maxPerRule = maxPerRule;
+    }
+
+    /**
+     * Adds the passed problem to the list of problems if the maximum numbers of problems are not
+     * exceeded. If they are, a problem telling that the problems are truncated is added instead.
+     *
+     * @param problem a problem found by a rule
+     * @param problems the list of problems where to add the problem
+     */
+    public void add(LintProblem problem, List<LintProblem> problems) {
+      if (fileTruncated || truncatedRules.contains(problem.getRuleId())) {
+        return;
+      }
+
+      LintProblem toAdd = problem;
+      int ruleCount = perRule.merge(problem.getRuleId(), 1, Integer::sum);
+      if (maxPerRule > 0 && ruleCount > maxPerRule) {
+        truncatedRules.add(problem.getRuleId());
+        toAdd =
+            new LintProblem(
+                problem.getLine(),
+                problem.getColumn(),
+                "too many problems (more than %d), further ones are not reported"
+                    .formatted(maxPerRule),
+                problem.getRuleId());
+        toAdd.setLevel(problem.getLevel());
+      }
+
+      if (maxPerFile > 0 && total >= maxPerFile) {
+        fileTruncated = true;
+        toAdd =
+            new LintProblem(
+                problem.getLine(),
+                problem.getColumn(),
+                "too many problems in file (more than %d), the rest of the file is not checked"
+                    .formatted(maxPerFile));
+        toAdd.setLevel(problem.getLevel());
+      }
+
+      problems.add(toAdd);
+      total++;
+    }
+
+    /**
+     * Tells if the maximum number of problems for the file has been exceeded
+     *
+     * @return {@code true} if no more problems can be reported for the file
+     */
+    public boolean isFileTruncated() {
+      return fileTruncated;
+    }
+
+    /**
+     * Tells if the maximum number of problems for the passed rule has been exceeded
+     *
+     * @param rule a rule
+     * @return {@code true} if no more problems can be reported for this rule
+     */
+    public boolean isRuleTruncated(Rule rule) {
+      return truncatedRules.contains(rule.getId());
+    }
+  }
+
   private static class DisableDirective {
     protected List<String> rules;
     protected List<String> allRules;
@@ -17,6 +17,7 @@ package com.github.sbaudoin.yamllint;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import org.yaml.snakeyaml.scanner.ScannerException;
@@ -44,6 +45,7 @@ public class Parser {
     private int start;
     private int end;
     private String buffer;
+    private List<org.yaml.snakeyaml.tokens.Token> tokens = Collections.emptyList();
 
     /**
      * Constructor
@@ -100,6 +102,16 @@ public class Parser {
     public String getBuffer() {
       return buffer;
     }
+
+    /**
+     * Returns the tokens that start on this line. The tokens are only known for the lines returned
+     * by {@link #getTokensOrCommentsOrLines(String)}.
+     *
+     * @return the tokens starting on this line, in order (an empty list if none or unknown)
+     */
+    public List<org.yaml.snakeyaml.tokens.Token> getTokens() {
+      return tokens;
+    }
   }
 
   /** Simple wrapper class for token: a token is found on a line and has neighbour tokens */
@@ -418,6 +430,19 @@ public class Parser {
    * @return the list of tokens and comments found in the string
    */
   public static List<Lined> getTokensOrComments(final String buffer) {
+    return getTokensOrComments(buffer, LintBudget.UNLIMITED);
+  }
+
+  /**
+   * Identifies and returns the tokens and comments contained in the passed string, checking the
+   * passed budget after each token
+   *
+   * @param buffer a string to be parsed
+   * @param budget the budget allowed to tokenize the string
+   * @return the list of tokens and comments found in the string
+   * @throws LintBudget.ExceededException if the budget is exceeded
+   */
+  static List<Lined> getTokensOrComments(final String buffer, final LintBudget budget) {
     LintScanner yamlLoader = new LintScanner(new LintStreamReader(buffer));
 
     List<Lined> tokensOrComments = new ArrayList<>();
@@ -425,6 +450,7 @@ public class Parser {
       org.yaml.snakeyaml.tokens.Token prev = null;
       org.yaml.snakeyaml.tokens.Token curr = yamlLoader.getToken();
       while (curr != null) {
+        budget.checkToken();
         org.yaml.snakeyaml.tokens.Token next = yamlLoader.getToken();
         org.yaml.snakeyaml.tokens.Token nextnext = yamlLoader.peekToken();
 
@@ -449,17 +475,39 @@ public class Parser {
    * @return all tokens, comments and lines found in the passed string
    */
   public static List<Lined> getTokensOrCommentsOrLines(final String buffer) {
+    return getTokensOrCommentsOrLines(buffer, LintBudget.UNLIMITED);
+  }
+
+  /**
+   * Generator that mixes tokens and lines, ordering them by line number, checking the passed budget
+   * after each token
+   *
+   * @param buffer a string to be parsed
+   * @param budget the budget allowed to tokenize the string
+   * @return all tokens, comments and lines found in the passed string
+   * @throws LintBudget.ExceededException if the budget is exceeded
+   */
+  static List<Lined> getTokensOrCommentsOrLines(final String buffer, final LintBudget budget) {
     List<Lined> objects = new ArrayList<>();
-    Iterator<Lined> tokensOrComments = getTokensOrComments(buffer).iterator();
+    Iterator<Lined> tokensOrComments = getTokensOrComments(buffer, budget).iterator();
     Iterator<Line> lines = getLines(buffer).iterator();
 
     Lined tokenOrComment = (tokensOrComments.hasNext()) ? tokensOrComments.next() : null;
     Line line = (lines.hasNext()) ? lines.next() : null;
+    List<org.yaml.snakeyaml.tokens.Token> lineTokens = new ArrayList<>();
     while (tokenOrComment != null || line != null) {
       if (tokenOrComment == null || (line != null && tokenOrComment.getLineNo() > line.lineNo)) {
+        // All the tokens found since the previous line start on this line
+        if (!lineTokens.isEmpty()) {
+          line.tokens = lineTokens;
+          lineTokens = new ArrayList<>();
+        }
         objects.add(line);
         line = (lines.hasNext()) ? lines.next() : null;
       } else {
+        if (tokenOrComment instanceof Token token) {
+          lineTokens.add(token.getCurr());
+        }
         objects.add(tokenOrComment);
         tokenOrComment = (tokensOrComments.hasNext()) ? tokensOrComments.next() : null;
       }
@@ -0,0 +1,390 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A set of file path patterns compiled once and matched as a whole. Patterns are either regular
+ * expressions that must match the whole path (as with {@link String#matches(String)}) or lines of a
+ * <code>.gitignore</code> file.
+ *
+ * <p>Unless they contain back references, regexp patterns are compiled into a single alternation so
+ * that a path is checked with one match instead of one match per pattern. Gitignore patterns are
+ * translated into regular expressions and combined the same way; as soon as one of them is negated
+ * they are evaluated in order and the last matching pattern wins.
+ */
+public final class PathPatterns {
+  /** The supported pattern syntaxes */
+  public enum Syntax {
+    /** Java regular expressions matched against the whole path */
+    REGEX,
+    /** <code>.gitignore</code> patterns, anchored to the working directory */
+    GITIGNORE;
+
+    /**
+     * Returns the syntax identified by its configuration name
+     *
+     * @param name the name of the syntax, as used in the configuration
+     * @return the syntax or <code>null</code> if no such syntax
+     */
+    public static Syntax of(String name) {
+      for (Syntax syntax : values()) {
+        if (syntax.getName().equals(name)) {
+          return syntax;
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Returns the name of this syntax, as used in the configuration
+     *
+     * @return the name of this syntax
+     */
+    public String getName() {
+      return name().toLowerCase();
+    }
+  }
+
+  private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\(?:[1-9]|k<)");
+  private static final String REGEX_META = "\\.[]{}()<>*+-=!?^$|";
+
+  /** A set that matches no path */
+  public static final PathPatterns NONE = new PathPatterns(Collections.emptyList(), Syntax.REGEX);
+
+  private final List<String> source;
+  private final Syntax syntax;
+  // Either combined patterns (single match) or ordered patterns (one match per pattern)
+  private final Pattern files;
+  private final Pattern directories;
+  private final Pattern[] filePatterns;
+  private final Pattern[] directoryPatterns;
+  private final boolean[] negated;
+
+  private PathPatterns(List<String> source, Syntax syntax) {
+    this.source = source;
+    this.syntax = syntax;
+
+    List<String> fileRegexps = new ArrayList<>();
+    List<String> directoryRegexps = new ArrayList<>();
+    List<Boolean> negations = new ArrayList<>();
+    boolean ordered = false;
+    for (String pattern : source) {
+      if (syntax == Syntax.REGEX) {
+        fileRegexps.add(pattern);
+        // Group numbers and names, and quoted sections, are not preserved by an alternation
+        ordered |=
+            BACK_REFERENCE.matcher(pattern).find()
+                || pattern.contains("(?<")
+                || pattern.contains("\\Q");
+      } else {
+        String line = stripTrailingSpaces(pattern);
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        boolean negation = line.startsWith("!");
+        if (negation) {
+          line = line.substring(1);
+        }
+        boolean directoryOnly = line.endsWith("/");
+        if (directoryOnly) {
+          line = line.substring(0, line.length() - 1);
+        }
+        boolean anchored = line.indexOf('/') != -1;
+        if (line.startsWith("/")) {
+          line = line.substring(1);
+        }
+        String base = (anchored ? "" : "(?:.*/)?") + globToRegex(line);
+        fileRegexps.add(base + (directoryOnly ? "/.*" : "(?:/.*)?"));
+        directoryRegexps.add(base + "(?:/.*)?");
+        negations.add(negation);
+        ordered |= negation;
+      }
+    }
+
+    negated = new boolean[negations.size()];
+    for (int i = 0; i < negated.length; i++) {
+      negated[i] = negations.get(i);
+    }
+    Pattern combinedFiles = null;
+    Pattern combinedDirectories = null;
+    if (!ordered) {
+      try {
+        combinedFiles = fileRegexps.isEmpty() ? null : Pattern.compile(alternation(fileRegexps));
+        combinedDirectories =
+            directoryRegexps.isEmpty() ? null : Pattern.compile(alternation(directoryRegexps));
+      } catch (PatternSyntaxException e) {
+        // Patterns valid on their own may not be combined: they are then matched one by one (and
+        // an invalid pattern is reported below)
+        ordered = true;
+      }
+    }
+    if (ordered) {
+      files = null;
+      directories = null;
+      filePatterns = fileRegexps.stream().map(Pattern::compile).toArray(Pattern[]::new);
+      directoryPatterns = directoryRegexps.stream().map(Pattern::compile).toArray(Pattern[]::new);
+    } else {
+      files = combinedFiles;
+      directories = combinedDirectories;
+      filePatterns = null;
+      directoryPatterns = null;
+    }
+  }
+
+  /**
+   * Compiles a list of patterns
+   *
+   * @param patterns the patterns, may be <code>null</code>
+   * @param syntax the syntax of the patterns
+   * @return the compiled patterns
+   * @throws java.util.regex.PatternSyntaxException if one of the patterns is not a valid regexp
+   */
+  public static PathPatterns compile(List<String> patterns, Syntax syntax) {
+    return new PathPatterns(patterns == null ? Collections.emptyList() : patterns, syntax);
+  }
+
+  /**
+   * Returns the patterns that were compiled, in their original form
+   *
+   * @return the list of source patterns
+   */
+  public List<String> getSource() {
+    return source;
+  }
+
+  /**
+   * Returns the syntax of the patterns
+   *
+   * @return the syntax of the patterns
+   */
+  public Syntax getSyntax() {
+    return syntax;
+  }
+
+  /**
+   * Tells if a file path matches these patterns
+   *
+   * @param path a file path
+   * @return <code>true</code> if the path is matched, <code>false</code> otherwise
+   */
+  public boolean matches(String path) {
+    String p = normalize(path);
+    if (filePatterns == null) {
+      return files != null && files.matcher(p).matches();
+    }
+    if (syntax == Syntax.REGEX) {
+      for (Pattern pattern : filePatterns) {
+        if (pattern.matcher(p).matches()) {
+          return true;
+        }
+      }
+      return false;
+    }
+    for (int i = filePatterns.length - 1; i >= 0; i--) {
+      if (filePatterns[i].matcher(p).matches()) {
+        return !negated[i];
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Tells if every file under a directory is matched by these patterns, so that the directory does
+   * not need to be traversed at all. This can only be decided for gitignore patterns: regexps are
+   * arbitrary and this method always returns <code>false</code> for them.
+   *
+   * @param path a directory path
+   * @return <code>true</code> if all files under the directory are sure to be matched, <code>false
+   *     </code> if they may not
+   */
+  public boolean matchesDirectory(String path) {
+    if (syntax == Syntax.REGEX) {
+      return false;
+    }
+    String p = normalize(path);
+    if (directoryPatterns == null) {
+      return directories != null && directories.matcher(p).matches();
+    }
+    for (int i = directoryPatterns.length - 1; i >= 0; i--) {
+      if (directoryPatterns[i].matcher(p).matches()) {
+        // A later negated pattern could re-include some of the files of the directory
+        for (int j = i + 1; j < negated.length; j++) {
+          if (negated[j]) {
+            return false;
+          }
+        }
+        return !negated[i];
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Normalizes a path before matching: gitignore patterns use forward slashes and paths relative to
+   * the working directory, regexps see the path unchanged
+   *
+   * @param path a path
+   * @return the path to be matched
+   */
+  private String normalize(String path) {
+    if (syntax == Syntax.REGEX) {
+      return path;
+    }
+    String p = File.separatorChar == '/' ? path : path.replace(File.separatorChar, '/');
+    while (p.startsWith("./")) {
+      p = p.substring(2);
+    }
+    return p;
+  }
+
+  /**
+   * Builds a regexp alternation out of a list of regexps
+   *
+   * @param regexps regular expressions
+   * @return an expression that matches whenever one of the expressions matches
+   */
+  private static String alternation(List<String> regexps) {
+    StringBuilder sb = new StringBuilder();
+    for (String regexp : regexps) {
+      if (sb.length() > 0) {
+        sb.append('|');
+      }
+      sb.append("(?:").append(regexp).append(')');
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Removes the trailing spaces of a gitignore line, unless they are escaped with a backslash
+   *
+   * @param line a gitignore line
+   * @return the line without its trailing spaces
+   */
+  private static String stripTrailingSpaces(String line) {
+    int end = line.length();
+    while (end > 0 && line.charAt(end - 1) == ' ' && (end < 2 || line.charAt(end - 2) != '\\')) {
+      end--;
+    }
+    return line.substring(0, end);
+  }
+
+  /**
+   * Translates a gitignore glob (without its leading <code>!</code>, leading or trailing slash)
+   * into a regular expression
+   *
+   * @param glob a gitignore glob
+   * @return the equivalent regular expression
+   */
+  static String globToRegex(String glob) {
+    StringBuilder sb = new StringBuilder();
+    int length = glob.length();
+    for (int i = 0; i < length; i++) {
+      char c = glob.charAt(i);
+      switch (c) {
+        case '*' -> {
+          boolean atSegmentStart = i == 0 || glob.charAt(i - 1) == '/';
+          if (i + 1 < length && glob.charAt(i + 1) == '*' && atSegmentStart) {
+            if (i + 2 == length) {
+              // Trailing "**": everything inside
+              sb.append(".*");
+              i++;
+              continue;
+            } else if (glob.charAt(i + 2) == '/') {
+              // Leading or inner "**/": zero or more directories
+              sb.append("(?:.*/)?");
+              i += 2;
+              continue;
+            }
+          }
+          // Other consecutive asterisks are regular asterisks
+          while (i + 1 < length && glob.charAt(i + 1) == '*') {
+            i++;
+          }
+          sb.append("[^/]*");
+        }
+        case '?' -> sb.append("[^/]");
+        case '[' -> i = appendCharacterClass(glob, i, sb);
+        case '\\' -> {
+          if (i + 1 < length) {
+            i++;
+            appendLiteral(glob.charAt(i), sb);
+          }
+        }
+        default -> appendLiteral(c, sb);
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Appends a glob character class to a regexp, or a literal <code>[</code> if the class is not
+   * closed
+   *
+   * @param glob a gitignore glob
+   * @param start the index of the opening bracket
+   * @param sb the regexp being built
+   * @return the index of the last character consumed
+   */
+  private static int appendCharacterClass(String glob, int start, StringBuilder sb) {
+    int i = start + 1;
+    if (i < glob.length() && (glob.charAt(i) == '!' || glob.charAt(i) == '^')) {
+      i++;
+    }
+    if (i < glob.length() && glob.charAt(i) == ']') {
+      i++;
+    }
+    int end = glob.indexOf(']', i);
+    if (end == -1) {
+      appendLiteral('[', sb);
+      return start;
+    }
+    sb.append('[');
+    int j = start + 1;
+    if (glob.charAt(j) == '!' || glob.charAt(j) == '^') {
+      sb.append('^');
+      j++;
+    }
+    for (; j < end; j++) {
+      char c = glob.charAt(j);
+      if (c == '\\' || c == '[' || c == ']' || c == '&' || c == '^') {
+        sb.append('\\');
+      }
+      sb.append(c);
+    }
+    sb.append(']');
+    return end;
+  }
+
+  /**
+   * Appends a literal character to a regexp, escaped if needed
+   *
+   * @param c a character
+   * @param sb the regexp being built
+   */
+  private static void appendLiteral(char c, StringBuilder sb) {
+    if (REGEX_META.indexOf(c) != -1) {
+      sb.append('\\');
+    }
+    sb.append(c);
+  }
+}
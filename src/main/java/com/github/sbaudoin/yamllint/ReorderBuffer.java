@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A buffer that puts back in order items produced out of order, typically the lint results of files
+ * linted concurrently that must be formatted in the order the files were passed. Items are
+ * identified by their index, starting at 0, and {@link #take()} returns them in index order as soon
+ * as all the previous items have been taken.
+ *
+ * <p>The buffer holds at most <var>capacity</var> items: a producer putting an item too far ahead
+ * of the next item to be taken waits until there is room for it. Producers must therefore never
+ * hold back the next item while waiting, e.g. by limiting the number of items in progress to the
+ * capacity of the buffer.
+ *
+ * <p>This class is thread-safe. Several threads can put items but a single thread is expected to
+ * take them.
+ *
+ * @param <T> the type of the items
+ */
+public final class ReorderBuffer<T> {
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition nextReady = lock.newCondition();
+  private final Condition roomLeft = lock.newCondition();
+  // Item of index i is stored at i % capacity
+  private final Object[] items;
+  private long next = 0;
+  private long end = Long.MAX_VALUE;
+  private int size = 0;
+  private int maxSize = 0;
+
+  /**
+   * Constructor
+   *
+   * @param capacity the maximum number of items held by this buffer
+   * @throws IllegalArgumentException if <var>capacity</var> is not strictly positive
+   */
+  public ReorderBuffer(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be strictly positive");
+    }
+    items = new Object[capacity];
+  }
+
+  /**
+   * Adds an item, waiting if needed until there is room for it
+   *
+   * @param index the index of the item
+   * @param item the item, cannot be <code>null</code>
+   * @throws InterruptedException if interrupted while waiting
+   * @throws IllegalArgumentException if the index has already been taken or put
+   */
+  public void put(long index, T item) throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (index >= next + items.length) {
+        roomLeft.await();
+      }
+      store(index, item);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Adds an item if there is room for it
+   *
+   * @param index the index of the item
+   * @param item the item, cannot be <code>null</code>
+   * @return <code>true</code> if the item was added, <code>false</code> if the buffer has no room
+   *     for it
+   * @throws IllegalArgumentException if the index has already been taken or put
+   */
+  public boolean offer(long index, T item) {
+    lock.lock();
+    try {
+      if (index >= next + items.length) {
+        return false;
+      }
+      store(index, item);
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Tells this buffer how many items there are in total, so that {@link #take()} knows when to
+   * stop. This method can be called at any time, before or after the items are put.
+   *
+   * @param count the number of items
+   */
+  public void finish(long count) {
+    lock.lock();
+    try {
+      end = count;
+      nextReady.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the next item, waiting for it if needed
+   *
+   * @return the next item in index order or <code>null</code> if all items have been taken
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public T take() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      T item;
+      while ((item = peek()) == null && next < end) {
+        nextReady.await();
+      }
+      return (item == null) ? null : remove();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the number of items held by this buffer
+   *
+   * @return the number of items put and not taken yet
+   */
+  public int size() {
+    lock.lock();
+    try {
+      return size;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the maximum number of items this buffer has held at the same time
+   *
+   * @return the maximum size of this buffer
+   */
+  public int getMaxSize() {
+    lock.lock();
+    try {
+      return maxSize;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Stores an item. The lock must be held and there must be room for the item.
+   *
+   * @param index the index of the item
+   * @param item the item
+   */
+  private void store(long index, T item) {
+    if (item == null) {
+      throw new NullPointerException("item cannot be null");
+    }
+    int slot = (int) (index % items.length);
+    if (index < next || items[slot] != null) {
+      throw new IllegalArgumentException("item " + index + " already added");
+    }
+    items[slot] = item;
+    maxSize = Math.max(maxSize, ++size);
+    if (index == next) {
+      nextReady.signal();
+    }
+  }
+
+  /**
+   * Returns the next item if it is available. The lock must be held.
+   *
+   * @return the next item or <code>null</code>
+   */
+  @SuppressWarnings("unchecked")
+  private T peek() {
+    return (T) items[(int) (next % items.length)];
+  }
+
+  /**
+   * Removes and returns the next item, that must be available. The lock must be held.
+   *
+   * @return the next item
+   */
+  private T remove() {
+    T item = peek();
+    items[(int) (next++ % items.length)] = null;
+    size--;
+    roomLeft.signalAll();
+    return item;
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes the report of a lint run. Problems are written file after file, as soon as they are
+ * reported, so that the whole report never has to be held in memory.
+ *
+ * @see Format
+ */
+public interface ReportWriter {
+  /**
+   * Starts the report. Called once, before the first file is written.
+   *
+   * @throws IOException if an error occurs writing the report
+   */
+  default void start() throws IOException {}
+
+  /**
+   * Writes the problems found in a file
+   *
+   * @param file the name of the file
+   * @param problems the problems found in the file
+   * @throws IOException if an error occurs writing the report
+   */
+  void write(String file, List<LintProblem> problems) throws IOException;
+
+  /**
+   * Ends the report. Called once, after the last file has been written.
+   *
+   * @throws IOException if an error occurs writing the report
+   */
+  default void end() throws IOException {}
+}
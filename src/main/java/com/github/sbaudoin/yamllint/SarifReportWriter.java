@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import com.github.sbaudoin.yamllint.rules.Rule;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Writes a report in the <a href="https://docs.oasis-open.org/sarif/sarif/v2.1.0/">SARIF 2.1.0</a>
+ * format. The report is made of a single run whose rules are the rules enabled in the
+ * configuration; they are written once, when the report starts, and the results then refer to them
+ * by index.
+ */
+public final class SarifReportWriter implements ReportWriter {
+  /** Version of the SARIF format */
+  public static final String SARIF_VERSION = "2.1.0";
+
+  /** JSON schema of the SARIF format */
+  public static final String SARIF_SCHEMA = "https://json.schemastore.org/sarif-2.1.0.json";
+
+  private static final String INFORMATION_URI = "https://github.com/sbaudoin/yamllint";
+  private static final String RULES_HELP_URI =
+      "https://yamllint.readthedocs.io/en/stable/rules.html#module-yamllint.rules.";
+
+  private final Appendable out;
+  private final List<String> ruleIds = new ArrayList<>();
+  private final List<String> ruleLevels = new ArrayList<>();
+  private final Map<String, Integer> ruleIndexes = new HashMap<>();
+  private boolean firstResult = true;
+
+  /**
+   * Constructor
+   *
+   * @param out where to write the report, typically a buffered {@code Writer}
+   * @param conf the configuration of the run, used to describe its rules; may be <code>null</code>
+   */
+  public SarifReportWriter(Appendable out, YamlLintConfig conf) {
+    this.out = out;
+    if (conf != null) {
+      for (Rule rule : conf.getEnabledRules(null)) {
+        Object ruleConf = conf.getRuleConf(rule.getId());
+        Object level = (ruleConf instanceof Map<?, ?> map) ? map.get(Linter.LEVEL_KEY) : null;
+        ruleIndexes.put(rule.getId(), ruleIds.size());
+        ruleIds.add(rule.getId());
+        ruleLevels.add((level == null) ? Linter.ERROR_LEVEL : level.toString());
+      }
+    }
+  }
+
+  @Override
+  public void start() throws IOException {
+    out.append("{\"version\":\"")
+        .append(SARIF_VERSION)
+        .append("\",\"$schema\":\"")
+        .append(SARIF_SCHEMA)
+        .append("\",\"runs\":[{\"tool\":{\"driver\":{\"name\":\"")
+        .append(Cli.APP_NAME)
+        .append('"');
+    String version = getVersion();
+    if (version != null) {
+      out.append(",\"version\":");
+      Json.appendString(out, version);
+    }
+    out.append(",\"informationUri\":\"").append(INFORMATION_URI).append("\",\"rules\":[");
+    for (int i = 0; i < ruleIds.size(); i++) {
+      if (i > 0) {
+        out.append(',');
+      }
+      out.append("\n{\"id\":");
+      Json.appendString(out, ruleIds.get(i));
+      out.append(",\"helpUri\":");
+      Json.appendString(out, RULES_HELP_URI + ruleIds.get(i).replace('-', '_'));
+      out.append(",\"defaultConfiguration\":{\"level\":\"")
+          .append(getSarifLevel(ruleLevels.get(i)))
+          .append("\"}}");
+    }
+    out.append("]}},\"results\":[");
+  }
+
+  @Override
+  public void write(String file, List<LintProblem> problems) throws IOException {
+    // Computed once for all the problems of the file
+    String uri = toUri(file);
+    for (LintProblem problem : problems) {
+      if (!firstResult) {
+        out.append(',');
+      }
+      firstResult = false;
+      out.append("\n{");
+      Integer index = (problem.getRuleId() == null) ? null : ruleIndexes.get(problem.getRuleId());
+      if (problem.getRuleId() != null) {
+        out.append("\"ruleId\":");
+        Json.appendString(out, problem.getRuleId());
+        out.append(',');
+      }
+      if (index != null) {
+        out.append("\"ruleIndex\":");
+        Json.appendInt(out, index);
+        out.append(',');
+      }
+      out.append("\"level\":\"")
+          .append(getSarifLevel(problem.getLevel()))
+          .append("\",\"message\":{\"text\":");
+      Json.appendString(out, problem.getDesc());
+      out.append("},\"locations\":[{\"physicalLocation\":{\"artifactLocation\":{\"uri\":");
+      Json.appendString(out, uri);
+      out.append("},\"region\":{\"startLine\":");
+      Json.appendInt(out, problem.getLine());
+      out.append(",\"startColumn\":");
+      Json.appendInt(out, problem.getColumn());
+      out.append("}}}]}");
+    }
+  }
+
+  @Override
+  public void end() throws IOException {
+    out.append("\n]}]}\n");
+  }
+
+  /**
+   * Returns the SARIF level corresponding to a problem level
+   *
+   * @param level a problem level, may be <code>null</code>
+   * @return the corresponding SARIF level
+   */
+  private static String getSarifLevel(String level) {
+    if (Linter.WARNING_LEVEL.equals(level)) {
+      return "warning";
+    } else if (Linter.INFO_LEVEL.equals(level)) {
+      return "note";
+    }
+    return "error";
+  }
+
+  /**
+   * Converts a file name to a URI reference: relative paths remain relative, with slashes as
+   * separators, and absolute paths become <code>file:</code> URIs
+   *
+   * @param file a file name
+   * @return the URI reference of the file
+   */
+  private static String toUri(String file) {
+    File f = new File(file);
+    if (f.isAbsolute()) {
+      return f.toURI().toString();
+    }
+    try {
+      return new URI(null, null, file.replace(File.separatorChar, '/'), null).getRawPath();
+    } catch (URISyntaxException e) {
+      return file;
+    }
+  }
+
+  /**
+   * Returns the version of this linter
+   *
+   * @return the version or <code>null</code> if unknown
+   */
+  private static String getVersion() {
+    try (InputStream in =
+        SarifReportWriter.class.getClassLoader().getResourceAsStream("yaml.properties")) {
+      if (in == null) {
+        return null;
+      }
+      Properties props = new Properties();
+      props.load(in);
+      return props.getProperty("version");
+    } catch (IOException e) {
+      return null;
+    }
+  }
+}
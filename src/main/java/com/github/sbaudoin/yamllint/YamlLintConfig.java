@@ -25,6 +25,7 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.util.*;
+import java.util.regex.PatternSyntaxException;
 import org.apache.commons.io.input.CharSequenceReader;
 import org.yaml.snakeyaml.Yaml;
 import org.yaml.snakeyaml.error.YAMLException;
@@ -47,9 +48,38 @@ public class YamlLintConfig {
    */
   public static final String IGNORE_FROM_FILE_KEY = "ignore-from-file";
 
+  /**
+   * Configuration parameter that gives the syntax of the <code>yaml-files</code> and <code>ignore
+   * </code> patterns: "regex" (default) or "gitignore"
+   */
+  public static final String PATTERN_SYNTAX_KEY = "pattern-syntax";
+
   /** Configuration parameter that lists the rules checked by the linter */
   public static final String RULES_KEY = "rules";
 
+  /**
+   * Configuration parameter that gives the maximum number of problems reported per file (0 means no
+   * limit)
+   */
+  public static final String MAX_PROBLEMS_PER_FILE_KEY = "max-problems-per-file";
+
+  /**
+   * Configuration parameter that gives the maximum number of problems reported per rule and per
+   * file (0 means no limit)
+   */
+  public static final String MAX_PROBLEMS_PER_RULE_KEY = "max-problems-per-rule";
+
+  /**
+   * Configuration parameter that gives the maximum time in milliseconds allowed to lint a file (0
+   * means no limit)
+   */
+  public static final String TIMEOUT_KEY = "timeout";
+
+  /**
+   * Configuration parameter that gives the maximum number of tokens in a file (0 means no limit)
+   */
+  public static final String MAX_TOKENS_KEY = "max-tokens";
+
   // Compared to Python yamllint, for better semantic we store the rules' configurations in ruleConf
   // instead of an attribute named 'rule', which can be misleading
   /** Holder for the rules' configurations. Key: ruleId; value: rule configuration as a map */
@@ -61,6 +91,31 @@ public class YamlLintConfig {
   /** List of regexp patterns used to identify YAML files, defaulted to .yaml and .yml */
   protected List<String> yamlFiles = Arrays.asList(".*\\.yaml$", ".*\\.yml$");
 
+  /** Syntax of the <var>yamlFiles</var> and <var>ignore</var> patterns */
+  protected PathPatterns.Syntax patternSyntax = PathPatterns.Syntax.REGEX;
+
+  // Compiled forms of yamlFiles and ignore, rebuilt whenever one of the lists is replaced
+  private volatile PathPatterns yamlFilesPatterns = PathPatterns.NONE;
+  private volatile PathPatterns ignorePatterns = PathPatterns.NONE;
+
+  /**
+   * Minimum level of the rules to be enabled: rules configured with a lower level are not run at
+   * all. Defaulted to {@link Linter#INFO_LEVEL}, i.e. all rules are run.
+   */
+  protected String minLevel = Linter.INFO_LEVEL;
+
+  /** Maximum number of problems reported per file, 0 meaning no limit */
+  protected int maxProblemsPerFile = 0;
+
+  /** Maximum number of problems reported per rule for a given file, 0 meaning no limit */
+  protected int maxProblemsPerRule = 0;
+
+  /** Maximum time in milliseconds allowed to lint a file, 0 meaning no limit */
+  protected long timeout = 0;
+
+  /** Maximum number of tokens allowed in a file, 0 meaning no limit */
+  protected int maxTokens = 0;
+
   /**
    * Constructs a <code>YamlLintConfig</code> from a YAML string
    *
@@ -122,7 +177,12 @@ public class YamlLintConfig {
    * @return <code>true</code> if a YAML file, <code>false</code> otherwise
    */
   public boolean isYamlFile(String filepath) {
-    return yamlFiles.stream().anyMatch(filepath::matches);
+    PathPatterns patterns = yamlFilesPatterns;
+    if (patterns.getSource() != yamlFiles || patterns.getSyntax() != patternSyntax) {
+      patterns = PathPatterns.compile(yamlFiles, patternSyntax);
+      yamlFilesPatterns = patterns;
+    }
+    return patterns.matches(filepath);
   }
 
   /**
@@ -132,7 +192,34 @@ public class YamlLintConfig {
    * @return <code>true</code> if the file must be ignored, <code>false</code> otherwise
    */
   public boolean isFileIgnored(String filepath) {
-    return ignore != null && ignore.stream().anyMatch(filepath::matches);
+    return ignore != null && getIgnorePatterns().matches(filepath);
+  }
+
+  /**
+   * Tells if all the files of a directory are to be ignored by this tool, so that the directory
+   * does not need to be traversed. This can only be decided with gitignore patterns.
+   *
+   * @param dirpath the path of the directory
+   * @return <code>true</code> if all files of the directory are ignored, <code>false</code> if some
+   *     may not be
+   * @see PathPatterns#matchesDirectory(String)
+   */
+  public boolean isDirectoryIgnored(String dirpath) {
+    return ignore != null && getIgnorePatterns().matchesDirectory(dirpath);
+  }
+
+  /**
+   * Returns the compiled <var>ignore</var> patterns
+   *
+   * @return the compiled patterns of the files to be ignored
+   */
+  private PathPatterns getIgnorePatterns() {
+    PathPatterns patterns = ignorePatterns;
+    if (patterns.getSource() != ignore || patterns.getSyntax() != patternSyntax) {
+      patterns = PathPatterns.compile(ignore, patternSyntax);
+      ignorePatterns = patterns;
+    }
+    return patterns;
   }
 
   /**
@@ -143,16 +230,155 @@ public class YamlLintConfig {
    *     is <code>null</code>.
    */
   public List<Rule> getEnabledRules(File file) {
+    int minLevelValue = (Integer) Linter.getProblemLevel(minLevel);
     List<Rule> rules = new ArrayList<>();
     for (Map.Entry<String, Object> entry : ruleConf.entrySet()) {
       Rule rule = RuleFactory.instance.getRule(entry.getKey());
-      if (rule != null && entry.getValue() != null && (file == null || !rule.ignores(file))) {
+      if (rule != null
+          && entry.getValue() != null
+          && getRuleLevelValue(entry.getValue()) >= minLevelValue
+          && (file == null || !rule.ignores(file))) {
         rules.add(rule);
       }
     }
     return rules;
   }
 
+  /**
+   * Returns the minimum level of the rules to be enabled
+   *
+   * @return the minimum level of the rules returned by {@link #getEnabledRules(File)}
+   * @see Linter
+   */
+  public String getMinLevel() {
+    return minLevel;
+  }
+
+  /**
+   * Sets the minimum level of the rules to be enabled. Rules configured with a lower level are
+   * removed from the enabled rules and thus never run by the linter. For example, setting {@link
+   * Linter#ERROR_LEVEL} skips all warning and info rules.
+   *
+   * @param minLevel one of {@link Linter#INFO_LEVEL}, {@link Linter#WARNING_LEVEL} or {@link
+   *     Linter#ERROR_LEVEL}
+   * @throws IllegalArgumentException if <var>minLevel</var> is not a valid rule level
+   * @see Linter
+   */
+  public void setMinLevel(String minLevel) {
+    if (!Linter.ERROR_LEVEL.equals(minLevel)
+        && !Linter.WARNING_LEVEL.equals(minLevel)
+        && !Linter.INFO_LEVEL.equals(minLevel)) {
+      throw new IllegalArgumentException(
+          "level should be \"%s\", \"%s\" or \"%s\""
+              .formatted(Linter.ERROR_LEVEL, Linter.WARNING_LEVEL, Linter.INFO_LEVEL));
+    }
+    this.minLevel = minLevel;
+  }
+
+  /**
+   * Returns the maximum number of problems to be reported for a file. Once this number is reached,
+   * the rest of the file is not checked.
+   *
+   * @return the maximum number of problems reported per file, 0 meaning no limit
+   */
+  public int getMaxProblemsPerFile() {
+    return maxProblemsPerFile;
+  }
+
+  /**
+   * Sets the maximum number of problems to be reported for a file
+   *
+   * @param maxProblemsPerFile the maximum number of problems reported per file, 0 meaning no limit
+   * @throws IllegalArgumentException if <var>maxProblemsPerFile</var> is negative
+   */
+  public void setMaxProblemsPerFile(int maxProblemsPerFile) {
+    if (maxProblemsPerFile < 0) {
+      throw new IllegalArgumentException("maxProblemsPerFile cannot be negative");
+    }
+    this.maxProblemsPerFile = maxProblemsPerFile;
+  }
+
+  /**
+   * Returns the maximum number of problems to be reported by a rule for a file. Once this number is
+   * reached, the rule is not checked any further for this file.
+   *
+   * @return the maximum number of problems reported per rule, 0 meaning no limit
+   */
+  public int getMaxProblemsPerRule() {
+    return maxProblemsPerRule;
+  }
+
+  /**
+   * Sets the maximum number of problems to be reported by a rule for a file
+   *
+   * @param maxProblemsPerRule the maximum number of problems reported per rule, 0 meaning no limit
+   * @throws IllegalArgumentException if <var>maxProblemsPerRule</var> is negative
+   */
+  public void setMaxProblemsPerRule(int maxProblemsPerRule) {
+    if (maxProblemsPerRule < 0) {
+      throw new IllegalArgumentException("maxProblemsPerRule cannot be negative");
+    }
+    this.maxProblemsPerRule = maxProblemsPerRule;
+  }
+
+  /**
+   * Returns the maximum time allowed to lint a file. Once this time is exceeded, the linter stops
+   * checking the file and reports a timeout problem.
+   *
+   * @return the maximum time in milliseconds allowed to lint a file, 0 meaning no limit
+   */
+  public long getTimeout() {
+    return timeout;
+  }
+
+  /**
+   * Sets the maximum time allowed to lint a file
+   *
+   * @param timeout the maximum time in milliseconds allowed to lint a file, 0 meaning no limit
+   * @throws IllegalArgumentException if <var>timeout</var> is negative
+   */
+  public void setTimeout(long timeout) {
+    if (timeout < 0) {
+      throw new IllegalArgumentException("timeout cannot be negative");
+    }
+    this.timeout = timeout;
+  }
+
+  /**
+   * Returns the maximum number of tokens allowed in a file. Once this number is exceeded, the
+   * linter stops checking the file and reports a problem.
+   *
+   * @return the maximum number of tokens allowed in a file, 0 meaning no limit
+   */
+  public int getMaxTokens() {
+    return maxTokens;
+  }
+
+  /**
+   * Sets the maximum number of tokens allowed in a file
+   *
+   * @param maxTokens the maximum number of tokens allowed in a file, 0 meaning no limit
+   * @throws IllegalArgumentException if <var>maxTokens</var> is negative
+   */
+  public void setMaxTokens(int maxTokens) {
+    if (maxTokens < 0) {
+      throw new IllegalArgumentException("maxTokens cannot be negative");
+    }
+    this.maxTokens = maxTokens;
+  }
+
+  /**
+   * Returns the numeric level of a rule configuration
+   *
+   * @param conf a validated rule configuration
+   * @return the numeric level of the rule, as returned by {@link Linter#getProblemLevel(Object)}
+   */
+  private static int getRuleLevelValue(Object conf) {
+    Object level = (conf instanceof Map<?, ?> map) ? map.get(Linter.LEVEL_KEY) : null;
+    Object value = (level == null) ? null : Linter.getProblemLevel(level);
+    return (value instanceof Integer i) ? i : (Integer) Linter.getProblemLevel(Linter.ERROR_LEVEL);
+  }
+
   /**
    * Returns the configuration for the rule identified by its ID
    *
@@ -194,6 +420,13 @@ public class YamlLintConfig {
     if (baseConfig.ignore != null) {
       ignore = baseConfig.ignore;
     }
+
+    patternSyntax = baseConfig.patternSyntax;
+
+    maxProblemsPerFile = baseConfig.maxProblemsPerFile;
+    maxProblemsPerRule = baseConfig.maxProblemsPerRule;
+    timeout = baseConfig.timeout;
+    maxTokens = baseConfig.maxTokens;
   }
 
   /**
@@ -255,6 +488,27 @@ public class YamlLintConfig {
       }
     }
 
+    // Syntax of the file patterns
+    if (conf.containsKey(PATTERN_SYNTAX_KEY)) {
+      PathPatterns.Syntax syntax =
+          (conf.get(PATTERN_SYNTAX_KEY) instanceof String name)
+              ? PathPatterns.Syntax.of(name)
+              : null;
+      if (syntax == null) {
+        throw getInvalidConfigException(
+            "'%s' should be \"%s\" or \"%s\""
+                .formatted(
+                    PATTERN_SYNTAX_KEY,
+                    PathPatterns.Syntax.REGEX.getName(),
+                    PathPatterns.Syntax.GITIGNORE.getName()));
+      }
+      if (syntax == PathPatterns.Syntax.GITIGNORE && patternSyntax == PathPatterns.Syntax.REGEX) {
+        // The default regexps would not make sense as gitignore patterns
+        yamlFiles = Arrays.asList("*.yaml", "*.yml", ".yamllint");
+      }
+      patternSyntax = syntax;
+    }
+
     // List of patterns used to identify YAML files
     if (conf.containsKey(YAML_FILES_KEY)) {
       if (!(conf.get(YAML_FILES_KEY) instanceof List)) {
@@ -266,6 +520,50 @@ public class YamlLintConfig {
 
     // List of patterns used to ignore files
     ignore = getIgnorePatterns(conf);
+
+    // Compile the patterns once and for all, reporting invalid regexps as configuration errors
+    try {
+      yamlFilesPatterns = PathPatterns.compile(yamlFiles, patternSyntax);
+      ignorePatterns = PathPatterns.compile(ignore, patternSyntax);
+    } catch (PatternSyntaxException e) {
+      throw getInvalidConfigException("file patterns", e.getMessage(), e);
+    }
+
+    // Maximum numbers of problems reported
+    maxProblemsPerFile = getMaxProblems(conf, MAX_PROBLEMS_PER_FILE_KEY, maxProblemsPerFile);
+    maxProblemsPerRule = getMaxProblems(conf, MAX_PROBLEMS_PER_RULE_KEY, maxProblemsPerRule);
+
+    // Lint budget
+    if (conf.containsKey(TIMEOUT_KEY)) {
+      Object value = conf.get(TIMEOUT_KEY);
+      if (!(value instanceof Integer || value instanceof Long)
+          || ((Number) value).longValue() < 0) {
+        throw getInvalidConfigException(
+            "'%s' must be a positive integer or 0".formatted(TIMEOUT_KEY));
+      }
+      timeout = ((Number) value).longValue();
+    }
+    maxTokens = getMaxProblems(conf, MAX_TOKENS_KEY, maxTokens);
+  }
+
+  /**
+   * Checks and returns a maximum number of problems (or tokens) from the configuration
+   *
+   * @param conf the linter configuration
+   * @param key the configuration parameter that gives the maximum number
+   * @param defaultValue the value returned if the parameter is not set
+   * @return the maximum number, 0 meaning no limit
+   * @throws YamlLintConfigException if the configuration parameter is not a positive integer or 0
+   */
+  private static int getMaxProblems(Map<String, Object> conf, String key, int defaultValue)
+      throws YamlLintConfigException {
+    if (!conf.containsKey(key)) {
+      return defaultValue;
+    }
+    if (!(conf.get(key) instanceof Integer value) || value < 0) {
+      throw getInvalidConfigException("'%s' must be a positive integer or 0".formatted(key));
+    }
+    return value;
   }
 
   /**
@@ -283,7 +581,7 @@ public class YamlLintConfig {
         throw getInvalidConfigException("no such rule: \"%s\"".formatted(id));
       }
 
-      Map<String, Object> newConf = validateRuleConf(rule, entry.getValue());
+      Map<String, Object> newConf = validateRuleConf(rule, entry.getValue(), patternSyntax);
       ruleConf.put(id, newConf);
     }
   }
@@ -298,9 +596,26 @@ public class YamlLintConfig {
    *     </code> if the rule is disabled by configuration
    * @throws YamlLintConfigException if <var>conf</var> contains invalid configuration
    */
-  @SuppressWarnings("unchecked")
   protected static Map<String, Object> validateRuleConf(final Rule rule, final Object conf)
       throws YamlLintConfigException {
+    return validateRuleConf(rule, conf, PathPatterns.Syntax.REGEX);
+  }
+
+  /**
+   * Validates a rule against a given configuration. The rule might be updated by this method.
+   *
+   * @param rule the rule to be validated against the passed configuration. Must not be <code>null
+   *     </code>.
+   * @param conf the YAML configuration of the rule
+   * @param patternSyntax the syntax of the rule's <code>ignore</code> patterns
+   * @return the possibly updated YAML configuration if the rule has been validated or <code>null
+   *     </code> if the rule is disabled by configuration
+   * @throws YamlLintConfigException if <var>conf</var> contains invalid configuration
+   */
+  @SuppressWarnings("unchecked")
+  protected static Map<String, Object> validateRuleConf(
+      final Rule rule, final Object conf, final PathPatterns.Syntax patternSyntax)
+      throws YamlLintConfigException {
     Object myConf = conf;
     if (myConf == null || "disable".equals(myConf)) {
       return null;
@@ -317,7 +632,7 @@ public class YamlLintConfig {
     Map<String, Object> mapConf = (Map<String, Object>) myConf;
 
     // Deal with the rule's 'ignore' or 'ignore-from-file' conf
-    setIgnoreConf(rule, mapConf);
+    setIgnoreConf(rule, mapConf, patternSyntax);
 
     // Deal with 'level' conf
     setRuleLevel(rule, mapConf);
@@ -395,11 +710,17 @@ public class YamlLintConfig {
    *
    * @param rule a rule
    * @param conf the rule's configuration
+   * @param patternSyntax the syntax of the patterns
    * @throws YamlLintConfigException if the ignore configuration is invalid
    */
-  private static void setIgnoreConf(Rule rule, Map<String, Object> conf)
+  private static void setIgnoreConf(
+      Rule rule, Map<String, Object> conf, PathPatterns.Syntax patternSyntax)
       throws YamlLintConfigException {
-    rule.setIgnore(getIgnorePatterns(conf));
+    try {
+      rule.setIgnore(getIgnorePatterns(conf), patternSyntax);
+    } catch (PatternSyntaxException e) {
+      throw getInvalidConfigException(IGNORE_KEY, e.getMessage(), e);
+    }
   }
 
   /**
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint.rules;
+
+import com.github.sbaudoin.yamllint.LintProblem;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.yaml.snakeyaml.tokens.*;
+
+/**
+ * Use this rule to limit the number of nodes that aliases expand to in a document. A document that
+ * is loaded with its aliases fully expanded (as most YAML libraries do) may be much bigger than its
+ * source: this rule prevents "billion laughs" like documents from being accepted.
+ *
+ * <p>Each alias counts as many nodes as the node referenced by its anchor contains (scalars and
+ * collections, the aliases being themselves recursively expanded). Nothing is actually expanded:
+ * the size of each anchored node is computed when the node is closed.
+ *
+ * <p>Options:
+ *
+ * <ul>
+ *   <li>{@code max-expanded-nodes} defines the maximum (inclusive) number of nodes that the aliases
+ *       of a document may expand to.
+ * </ul>
+ *
+ * <p>Examples:
+ *
+ * <p>With <code>alias-expansion: {max-expanded-nodes: 10}</code> the following code snippet would
+ * **PASS**:
+ *
+ * <pre>
+ *     ---
+ *     base: &amp;base
+ *       foo: bar
+ *     extended:
+ *       &lt;&lt;: *base
+ *       baz: qux
+ * </pre>
+ *
+ * the following code snippet would **FAIL**:
+ *
+ * <pre>
+ *     ---
+ *     a: &amp;a ["lol", "lol", "lol", "lol"]
+ *     b: &amp;b [*a, *a, *a, *a]
+ *     c: [*b, *b, *b, *b]
+ * </pre>
+ */
+public class AliasExpansion extends TokenRule {
+  private static final String STATE_KEY = "state";
+
+  /** Name of the "max-expanded-nodes" option */
+  public static final String OPTION_MAX_EXPANDED_NODES = "max-expanded-nodes";
+
+  /** Constructor. Sets default values to rule options. */
+  public AliasExpansion() {
+    registerOption(OPTION_MAX_EXPANDED_NODES, 10000);
+  }
+
+  @Override
+  public List<LintProblem> check(
+      Map<Object, Object> conf,
+      Token token,
+      Token prev,
+      Token next,
+      Token nextnext,
+      Map<String, Object> context) {
+    List<LintProblem> problems = new ArrayList<>();
+
+    if (token instanceof StreamStartToken
+        || token instanceof DocumentStartToken
+        || token instanceof DocumentEndToken
+        || !context.containsKey(STATE_KEY)) {
+      context.put(STATE_KEY, new State());
+    }
+    State state = (State) context.get(STATE_KEY);
+
+    // An anchor applies to the next node: if there is none (empty value), it references a null node
+    if (state.pendingAnchor != null
+        && !(token instanceof ScalarToken
+            || token instanceof TagToken
+            || token instanceof BlockEntryToken
+            || isCollectionStart(token))) {
+      state.anchors.put(state.pendingAnchor, 1L);
+      state.pendingAnchor = null;
+    }
+
+    // Indentless sequences ("key:\n- item") have no start and end tokens
+    if (state.isIndentlessSequence()
+        && (token instanceof KeyToken || token instanceof BlockEndToken)) {
+      state.close();
+    }
+
+    if (token instanceof AnchorToken anchorToken) {
+      state.pendingAnchor = anchorToken.getValue();
+    } else if (isCollectionStart(token)) {
+      state.open(false);
+    } else if (token instanceof BlockEntryToken
+        && !state.isIndentlessSequence()
+        && !(state.top() != null && state.top().blockSequence)) {
+      state.open(true);
+    } else if (token instanceof BlockEndToken
+        || token instanceof FlowMappingEndToken
+        || token instanceof FlowSequenceEndToken) {
+      state.close();
+    } else if (token instanceof ScalarToken) {
+      if (state.pendingAnchor != null) {
+        state.anchors.put(state.pendingAnchor, 1L);
+        state.pendingAnchor = null;
+      }
+      state.add(1);
+    } else if (token instanceof AliasToken aliasToken) {
+      long size = state.anchors.getOrDefault(aliasToken.getValue(), 1L);
+      state.add(size);
+      state.expanded = saturatedAdd(state.expanded, size);
+
+      int max = (int) conf.get(OPTION_MAX_EXPANDED_NODES);
+      if (!state.reported && state.expanded > max) {
+        state.reported = true;
+        problems.add(
+            new LintProblem(
+                token.getStartMark().getLine() + 1,
+                token.getStartMark().getColumn() + 1,
+                "too many nodes expanded by aliases (more than %d)".formatted(max)));
+      }
+    }
+
+    if (token instanceof BlockSequenceStartToken) {
+      state.top().blockSequence = true;
+    }
+
+    return problems;
+  }
+
+  /**
+   * Tells if the passed token starts a collection
+   *
+   * @param token a token
+   * @return {@code true} if the token starts a mapping or a sequence
+   */
+  private static boolean isCollectionStart(Token token) {
+    return token instanceof BlockMappingStartToken
+        || token instanceof BlockSequenceStartToken
+        || token instanceof FlowMappingStartToken
+        || token instanceof FlowSequenceStartToken;
+  }
+
+  /**
+   * Adds two positive numbers without overflowing
+   *
+   * @param a a positive number
+   * @param b a positive number
+   * @return {@code a + b} or {@code Long.MAX_VALUE} if the sum overflows
+   */
+  private static long saturatedAdd(long a, long b) {
+    long sum = a + b;
+    return (sum < 0) ? Long.MAX_VALUE : sum;
+  }
+
+  /** Expansion state of a document */
+  private static class State {
+    /** Expanded size of the anchored nodes, by anchor */
+    final Map<String, Long> anchors = new HashMap<>();
+    /** The collections currently open */
+    final List<Collection> stack = new ArrayList<>();
+    /** Anchor waiting for its node */
+    String pendingAnchor = null;
+    /** Number of nodes the aliases of the document expand to */
+    long expanded = 0;
+    /** Tells if the document has already been reported */
+    boolean reported = false;
+
+    Collection top() {
+      return stack.isEmpty() ? null : stack.get(stack.size() - 1);
+    }
+
+    boolean isIndentlessSequence() {
+      return top() != null && top().indentless;
+    }
+
+    void open(boolean indentless) {
+      Collection collection = new Collection(pendingAnchor, indentless);
+      pendingAnchor = null;
+      stack.add(collection);
+    }
+
+    void close() {
+      if (stack.isEmpty()) {
+        return;
+      }
+      Collection collection = stack.remove(stack.size() - 1);
+      if (collection.anchor != null) {
+        anchors.put(collection.anchor, collection.size);
+      }
+      add(collection.size);
+    }
+
+    void add(long size) {
+      if (!stack.isEmpty()) {
+        top().size = saturatedAdd(top().size, size);
+      }
+    }
+  }
+
+  /** An open collection */
+  private static class Collection {
+    final String anchor;
+    final boolean indentless;
+    boolean blockSequence = false;
+    /** Expanded size of the collection, the collection itself included */
+    long size = 1;
+
+    Collection(String anchor, boolean indentless) {
+      this.anchor = anchor;
+      this.indentless = indentless;
+    }
+  }
+}
@@ -164,7 +164,8 @@ public class Braces extends TokenRule {
                       ? conf.get(OPTION_MAX_SPACES_INSIDE_EMPTY)
                       : conf.get(OPTION_MAX_SPACES_INSIDE)),
               "too few spaces inside empty braces",
-              "too many spaces inside empty braces");
+              "too many spaces inside empty braces",
+              context);
     } else if (token instanceof FlowMappingStartToken) {
       problem =
           spacesAfter(
@@ -173,7 +174,8 @@ public class Braces extends TokenRule {
               (int) conf.get(OPTION_MIN_SPACES_INSIDE),
               (int) conf.get(OPTION_MAX_SPACES_INSIDE),
               "too few spaces inside braces",
-              "too many spaces inside braces");
+              "too many spaces inside braces",
+              context);
     } else if (token instanceof FlowMappingEndToken && !(prev instanceof FlowMappingStartToken)) {
       problem =
           spacesBefore(
@@ -182,7 +184,8 @@ public class Braces extends TokenRule {
               (int) conf.get(OPTION_MIN_SPACES_INSIDE),
               (int) conf.get(OPTION_MAX_SPACES_INSIDE),
               "too few spaces inside braces",
-              "too many spaces inside braces");
+              "too many spaces inside braces",
+              context);
     }
 
     List<LintProblem> problems = new ArrayList<>();
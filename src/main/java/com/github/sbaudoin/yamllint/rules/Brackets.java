@@ -166,7 +166,8 @@ public class Brackets extends TokenRule {
                       ? conf.get(OPTION_MAX_SPACES_INSIDE)
                       : conf.get(OPTION_MAX_SPACES_INSIDE_EMPTY)),
               "too few spaces inside empty brackets",
-              "too many spaces inside empty brackets");
+              "too many spaces inside empty brackets",
+              context);
     } else if (token instanceof FlowSequenceStartToken) {
       problem =
           spacesAfter(
@@ -175,7 +176,8 @@ public class Brackets extends TokenRule {
               (int) conf.get(OPTION_MIN_SPACES_INSIDE),
               (int) conf.get(OPTION_MAX_SPACES_INSIDE),
               "too few spaces inside brackets",
-              "too many spaces inside brackets");
+              "too many spaces inside brackets",
+              context);
     } else if (token instanceof FlowSequenceEndToken && !(prev instanceof FlowSequenceStartToken)) {
       problem =
           spacesBefore(
@@ -184,7 +186,8 @@ public class Brackets extends TokenRule {
               (int) conf.get(OPTION_MIN_SPACES_INSIDE),
               (int) conf.get(OPTION_MAX_SPACES_INSIDE),
               "too few spaces inside brackets",
-              "too many spaces inside brackets");
+              "too many spaces inside brackets",
+              context);
     }
 
     List<LintProblem> problems = new ArrayList<>();
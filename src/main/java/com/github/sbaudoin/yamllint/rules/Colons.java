@@ -112,7 +112,8 @@ public class Colons extends TokenRule {
               -1,
               (int) conf.get(OPTION_MAX_SPACES_BEFORE),
               null,
-              "too many spaces before colon");
+              "too many spaces before colon",
+              context);
       if (problem != null) {
         problems.add(problem);
       }
@@ -124,7 +125,8 @@ public class Colons extends TokenRule {
               -1,
               (int) conf.get(OPTION_MAX_SPACES_AFTER),
               null,
-              "too many spaces after colon");
+              "too many spaces after colon",
+              context);
       if (problem != null) {
         problems.add(problem);
       }
@@ -138,7 +140,8 @@ public class Colons extends TokenRule {
               -1,
               (int) conf.get(OPTION_MAX_SPACES_AFTER),
               null,
-              "too many spaces after question mark");
+              "too many spaces after question mark",
+              context);
       if (problem != null) {
         problems.add(problem);
       }
@@ -140,7 +140,8 @@ public class Commas extends TokenRule {
                 -1,
                 (int) conf.get(OPTION_MAX_SPACES_BEFORE),
                 null,
-                "too many spaces before comma");
+                "too many spaces before comma",
+                context);
         if (problem != null) {
           problems.add(problem);
         }
@@ -153,7 +154,8 @@ public class Commas extends TokenRule {
               (int) conf.get(OPTION_MIN_SPACES_AFTER),
               (int) conf.get(OPTION_MAX_SPACES_AFTER),
               "too few spaces after comma",
-              "too many spaces after comma");
+              "too many spaces after comma",
+              context);
       if (problem != null) {
         problems.add(problem);
       }
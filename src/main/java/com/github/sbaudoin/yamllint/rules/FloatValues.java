@@ -131,8 +131,9 @@ public class FloatValues extends TokenRule {
     }
 
     String val = ((ScalarToken) token).getValue();
+    ScalarInfo info = getScalarInfo((ScalarToken) token, context);
 
-    if ((boolean) conf.get(OPTION_FORBID_NAN) && val.matches("(\\.nan|\\.NaN|\\.NAN)$")) {
+    if ((boolean) conf.get(OPTION_FORBID_NAN) && info.getKind() == ScalarInfo.Kind.NAN) {
       problems.add(
           new LintProblem(
               token.getStartMark().getLine() + 1,
@@ -140,7 +141,7 @@ public class FloatValues extends TokenRule {
               "forbidden not a number value \"%s\"".formatted(val)));
     }
 
-    if ((boolean) conf.get(OPTION_FORBID_INF) && val.matches("[-+]?(\\.inf|\\.Inf|\\.INF)$")) {
+    if ((boolean) conf.get(OPTION_FORBID_INF) && info.getKind() == ScalarInfo.Kind.INF) {
       problems.add(
           new LintProblem(
               token.getStartMark().getLine() + 1,
@@ -148,8 +149,7 @@ public class FloatValues extends TokenRule {
               "forbidden infinite value \"%s\"".formatted(val)));
     }
 
-    if ((boolean) conf.get(OPTION_FORBID_SCIENTIFIC_NOTATION)
-        && val.matches("[-+]?(\\.\\d+|\\d+(\\.\\d*)?)([eE][-+]?\\d+)$")) {
+    if ((boolean) conf.get(OPTION_FORBID_SCIENTIFIC_NOTATION) && info.isScientific()) {
       problems.add(
           new LintProblem(
               token.getStartMark().getLine() + 1,
@@ -158,7 +158,7 @@ public class FloatValues extends TokenRule {
     }
 
     if ((boolean) conf.get(OPTION_REQUIRE_NUMERAL_BEFORE_DECIMAL)
-        && val.matches("[-+]?(\\.\\d+)([eE][-+]?\\d+)?$")) {
+        && info.isMissingLeadingNumeral()) {
       problems.add(
           new LintProblem(
               token.getStartMark().getLine() + 1,
@@ -183,7 +183,8 @@ public class Hyphens extends TokenRule {
                 -1,
                 (int) conf.get(OPTION_MAX_SPACES_AFTER),
                 null,
-                "too many spaces after hyphen");
+                "too many spaces after hyphen",
+                context);
         if (problem != null) {
           problems.add(problem);
         }
@@ -197,7 +198,8 @@ public class Hyphens extends TokenRule {
                 (int) conf.get(OPTION_MIN_SPACES_AFTER),
                 -1,
                 "too few spaces after hyphen",
-                null);
+                null,
+                context);
         if (problem != null) {
           problems.add(problem);
         }
@@ -16,12 +16,11 @@
 package com.github.sbaudoin.yamllint.rules;
 
 import com.github.sbaudoin.yamllint.LintProblem;
-import java.lang.reflect.InvocationTargetException;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.tokens.*;
 
 /**
@@ -227,8 +226,6 @@ public class Indentation extends TokenRule {
   }
 
   private static final String STACK_KEY = "stack";
-  private static final String CURRENT_LINE_KEY = "cur_line";
-  private static final String CURRENT_LINE_INDENT_KEY = "cur_line_indent";
 
   /** Name of the "spaces" option */
   public static final String OPTION_SPACES = "spaces";
@@ -270,113 +267,89 @@ public class Indentation extends TokenRule {
     return problems;
   }
 
-  private int detectIndent(int baseIndent, int foundIndent, Map<String, Object> context) {
-    if (!(context.get(OPTION_SPACES) instanceof Integer)) {
-      context.put(OPTION_SPACES, foundIndent - baseIndent);
-    }
-    return baseIndent + (int) context.get(OPTION_SPACES);
-  }
+  private int computeExpectedIndent(int foundIndent, ScalarToken token, IndentStack stack) {
+    Character style = token.getStyle().getChar();
 
-  @SuppressWarnings("unchecked")
-  private int computeExpectedIndent(int foundIndent, Token token, Map<String, Object> context) {
-    Boolean plain = (Boolean) invokeSimpleMethod(token, "getPlain");
-    DumperOptions.ScalarStyle style =
-        (DumperOptions.ScalarStyle) invokeSimpleMethod(token, "getStyle");
-
-    if (Boolean.TRUE.equals(plain)) {
+    if (token.getPlain()) {
       return token.getStartMark().getColumn();
-    } else if (style != null && (style.getChar() == '"' || style.getChar() == '\'')) {
+    } else if (style != null && (style == '"' || style == '\'')) {
       return token.getStartMark().getColumn() + 1;
-    } else if (style != null && (style.getChar() == '>' || style.getChar() == '|')) {
-      List<Parent> stack = (List<Parent>) context.get(STACK_KEY);
-      if (stack.get(stack.size() - 1).type == LABEL.B_ENT) {
-        // - >
-        // multi
-        // line
-        return detectIndent(token.getStartMark().getColumn(), foundIndent, context);
-      } else if (stack.get(stack.size() - 1).type == LABEL.KEY) {
-        if (!stack.get(stack.size() - 1).explicitKey) {
-          throw new UnexpectedTokenException();
-        }
+    } else if (style != null && (style == '>' || style == '|')) {
+      int top = stack.size() - 1;
+      switch (stack.getLabel(top)) {
+        case B_ENT:
+          // - >
+          // multi
+          // line
+          return stack.detectIndent(token.getStartMark().getColumn(), foundIndent);
+        case KEY:
+          if (!stack.isExplicitKey(top)) {
+            throw new UnexpectedTokenException();
+          }
 
-        // - ? >
-        //       multi - line
-        //       key
-        //   : >
-        //       multi - line
-        //       value
-        return detectIndent(token.getStartMark().getColumn(), foundIndent, context);
-      } else if (stack.get(stack.size() - 1).type == LABEL.VAL) {
-        if (token.getStartMark().getLine() + 1 > (int) context.get(CURRENT_LINE_KEY)) {
-          // - key:
-          //     >
-          //       multi
-          //       line
-          return detectIndent(stack.get(stack.size() - 1).indent, foundIndent, context);
-        } else if (stack.get(stack.size() - 2).explicitKey) {
-          // - ? key
+          // - ? >
+          //       multi - line
+          //       key
           //   : >
           //       multi - line
           //       value
-          return detectIndent(token.getStartMark().getColumn(), foundIndent, context);
-        } else {
-          // - key: >
-          //     multi
-          //     line
-          return detectIndent(stack.get(stack.size() - 2).indent, foundIndent, context);
-        }
-      } else {
-        return detectIndent(stack.get(stack.size() - 1).indent, foundIndent, context);
+          return stack.detectIndent(token.getStartMark().getColumn(), foundIndent);
+        case VAL:
+          if (token.getStartMark().getLine() + 1 > stack.curLine) {
+            // - key:
+            //     >
+            //       multi
+            //       line
+            return stack.detectIndent(stack.getIndent(top), foundIndent);
+          } else if (stack.isExplicitKey(top - 1)) {
+            // - ? key
+            //   : >
+            //       multi - line
+            //       value
+            return stack.detectIndent(token.getStartMark().getColumn(), foundIndent);
+          } else {
+            // - key: >
+            //     multi
+            //     line
+            return stack.detectIndent(stack.getIndent(top - 1), foundIndent);
+          }
+        default:
+          return stack.detectIndent(stack.getIndent(top), foundIndent);
       }
     }
 
     return 0;
   }
 
-  private Object invokeSimpleMethod(Object o, String methodName) {
-    try {
-      return o.getClass().getMethod(methodName, null).invoke(o);
-    } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-      // Error: we assume this may be expected and we return null
-      return null;
-    }
-  }
-
-  private List<LintProblem> checkScalarIndentation(Token token, Map<String, Object> context) {
-    List<LintProblem> problems = new ArrayList<>();
-
+  private void checkScalarIndentation(
+      ScalarToken token, IndentStack stack, List<LintProblem> problems) {
     if (token.getStartMark().getLine() == token.getEndMark().getLine()) {
-      return problems;
+      return;
     }
 
     int expectedIndent = -1;
 
     int lineNo = token.getStartMark().getLine() + 1;
 
+    int[] buffer = token.getStartMark().getBuffer();
     int lineStart = token.getStartMark().getPointer();
     while (true) {
-      lineStart =
-          find(
-                  token.getStartMark().getBuffer(),
-                  '\n',
-                  lineStart,
-                  token.getEndMark().getPointer() - 1)
-              + 1;
+      lineStart = find(buffer, '\n', lineStart, token.getEndMark().getPointer() - 1) + 1;
       if (lineStart == 0) {
         break;
       }
       lineNo += 1;
 
       int indent = 0;
-      while (token.getStartMark().getBuffer()[lineStart + indent] == ' ') {
+      while (buffer[lineStart + indent] == ' ') {
         indent += 1;
       }
-      if (token.getStartMark().getBuffer()[lineStart + indent] == '\n') {
+      if (buffer[lineStart + indent] == '\n') {
         continue;
       }
 
       if (expectedIndent == -1) {
-        expectedIndent = computeExpectedIndent(indent, token, context);
+        expectedIndent = computeExpectedIndent(indent, token, stack);
       }
 
       if (indent != expectedIndent) {
@@ -387,8 +360,6 @@ public class Indentation extends TokenRule {
                 "wrong indentation: expected " + expectedIndent + " but found " + indent));
       }
     }
-
-    return problems;
   }
 
   private List<LintProblem> checkToken(
@@ -400,38 +371,34 @@ public class Indentation extends TokenRule {
       Map<String, Object> context) {
     List<LintProblem> problems = new ArrayList<>();
 
-    if (!context.containsKey(STACK_KEY)) {
-      context.put(STACK_KEY, new ArrayList<>(Arrays.asList(new Parent(LABEL.ROOT, 0))));
-      context.put(CURRENT_LINE_KEY, -1);
-      context.put(OPTION_SPACES, conf.get(OPTION_SPACES));
-      context.put(OPTION_INDENT_SEQUENCES, conf.get(OPTION_INDENT_SEQUENCES));
-    }
-
-    List<Parent> stack = (List<Parent>) context.get(STACK_KEY);
+    IndentStack stack =
+        (IndentStack) context.computeIfAbsent(STACK_KEY, k -> new IndentStack(conf));
+    Token.ID id = token.getTokenId();
 
     // Step 1: Lint
 
     boolean isVisible =
-        (!(token instanceof StreamStartToken || token instanceof StreamEndToken))
-            && !(token instanceof BlockEndToken)
-            && !(token instanceof ScalarToken && "".equals(invokeSimpleMethod(token, "getValue")));
-    boolean firstInLine =
-        (isVisible && token.getStartMark().getLine() + 1 > (int) context.get(CURRENT_LINE_KEY));
+        id != Token.ID.StreamStart
+            && id != Token.ID.StreamEnd
+            && id != Token.ID.BlockEnd
+            && !(id == Token.ID.Scalar && "".equals(((ScalarToken) token).getValue()));
+    boolean firstInLine = isVisible && token.getStartMark().getLine() + 1 > stack.curLine;
 
-    Integer foundIndentation = null;
+    int foundIndentation = 0;
     if (firstInLine) {
+      int top = stack.size() - 1;
       foundIndentation = token.getStartMark().getColumn();
-      Integer expected = stack.get(stack.size() - 1).indent;
-
-      if (token instanceof FlowMappingEndToken || token instanceof FlowSequenceEndToken) {
-        expected = stack.get(stack.size() - 1).lineIndent;
-      } else if (stack.get(stack.size() - 1).type == LABEL.KEY
-          && stack.get(stack.size() - 1).explicitKey
-          && !(token instanceof org.yaml.snakeyaml.tokens.ValueToken)) {
-        expected = detectIndent(expected, token, context);
+      int expected = stack.getIndent(top);
+
+      if (id == Token.ID.FlowMappingEnd || id == Token.ID.FlowSequenceEnd) {
+        expected = stack.getLineIndent(top);
+      } else if (stack.getLabel(top) == LABEL.KEY
+          && stack.isExplicitKey(top)
+          && id != Token.ID.Value) {
+        expected = stack.detectIndent(expected, token);
       }
 
-      if (!foundIndentation.equals(expected)) {
+      if (foundIndentation != expected) {
         String message;
         if (expected < 0) {
           message = "wrong indentation: expected at least %d".formatted(foundIndentation + 1);
@@ -444,303 +411,411 @@ public class Indentation extends TokenRule {
       }
     }
 
-    if (token instanceof org.yaml.snakeyaml.tokens.ScalarToken
-        && (boolean) conf.get(OPTION_CHECK_MULTI_LINE_STRINGS)) {
-      problems.addAll(checkScalarIndentation(token, context));
+    if (id == Token.ID.Scalar && (boolean) conf.get(OPTION_CHECK_MULTI_LINE_STRINGS)) {
+      checkScalarIndentation((ScalarToken) token, stack, problems);
     }
 
     // Step 2. a:
 
     if (isVisible) {
-      context.put(CURRENT_LINE_KEY, getRealEndLine(token));
+      stack.curLine = getRealEndLine(token);
       if (firstInLine) {
-        context.put(CURRENT_LINE_INDENT_KEY, foundIndentation);
+        stack.curLineIndent = foundIndentation;
       }
     }
 
     // Step 2. b: Update state
 
-    Integer indent = null;
-    if (token instanceof BlockMappingStartToken) {
-      //   - a: 1
-      // or
-      //   - ? a
-      //     : 1
-      // or
-      //   - ?
-      //       a
-      //     : 1
-      if (!(next instanceof KeyToken)
-          || next.getStartMark().getLine() != token.getStartMark().getLine()) {
-        throw new UnexpectedTokenException();
-      }
+    int top = stack.size() - 1;
+    int indent;
+    switch (id) {
+      case BlockMappingStart:
+        //   - a: 1
+        // or
+        //   - ? a
+        //     : 1
+        // or
+        //   - ?
+        //       a
+        //     : 1
+        if (!(next instanceof KeyToken)
+            || next.getStartMark().getLine() != token.getStartMark().getLine()) {
+          throw new UnexpectedTokenException();
+        }
 
-      indent = token.getStartMark().getColumn();
+        stack.push(LABEL.B_MAP, token.getStartMark().getColumn());
+        break;
 
-      stack.add(new Parent(LABEL.B_MAP, indent));
+      case FlowMappingStart:
+        if (next.getStartMark().getLine() == token.getStartMark().getLine()) {
+          //   - {a: 1, b: 2}
+          indent = next.getStartMark().getColumn();
+        } else {
+          //   - {
+          //     a: 1, b: 2
+          //   }
+          indent = stack.detectIndent(stack.curLineIndent, next);
+        }
 
-    } else if (token instanceof FlowMappingStartToken) {
-      if (next.getStartMark().getLine() == token.getStartMark().getLine()) {
-        //   - {a: 1, b: 2}
-        indent = next.getStartMark().getColumn();
-      } else {
-        //   - {
-        //     a: 1, b: 2
-        //   }
-        indent = detectIndent((int) context.get(CURRENT_LINE_INDENT_KEY), next, context);
-      }
+        stack.push(LABEL.F_MAP, indent, stack.curLineIndent);
+        break;
 
-      stack.add(new Parent(LABEL.F_MAP, indent, (int) context.get(CURRENT_LINE_INDENT_KEY)));
+      case BlockSequenceStart:
+        //   - - a
+        //     - b
+        if (!(next instanceof BlockEntryToken)
+            || next.getStartMark().getLine() != token.getStartMark().getLine()) {
+          throw new UnexpectedTokenException();
+        }
 
-    } else if (token instanceof BlockSequenceStartToken) {
-      //   - - a
-      //     - b
-      if (!(next instanceof BlockEntryToken)
-          || next.getStartMark().getLine() != token.getStartMark().getLine()) {
-        throw new UnexpectedTokenException();
-      }
+        stack.push(LABEL.B_SEQ, token.getStartMark().getColumn());
+        break;
 
-      indent = token.getStartMark().getColumn();
+      case BlockEntry:
+        // in case of an empty entry
+        if (next instanceof BlockEntryToken || next instanceof BlockEndToken) {
+          break;
+        }
 
-      stack.add(new Parent(LABEL.B_SEQ, indent));
+        // It looks like pyyaml doesn't issue BlockSequenceStartTokens when the
+        // list is not indented. We need to compensate that.
+        if (stack.getLabel(top) != LABEL.B_SEQ) {
+          stack.push(LABEL.B_SEQ, token.getStartMark().getColumn());
+          stack.setImplicitBlockSeq(stack.size() - 1);
+        }
 
-    } else if (token instanceof BlockEntryToken
-        &&
-        // in case of an empty entry
-        !(next instanceof BlockEntryToken || next instanceof BlockEndToken)) {
-      // It looks like pyyaml doesn't issue BlockSequenceStartTokens when the
-      // list is not indented. We need to compensate that.
-      if (stack.get(stack.size() - 1).type != LABEL.B_SEQ) {
-        stack.add(new Parent(LABEL.B_SEQ, token.getStartMark().getColumn()));
-        stack.get(stack.size() - 1).implicitBlockSeq = true;
-      }
+        if (next.getStartMark().getLine() == token.getEndMark().getLine()) {
+          //   - item 1
+          //   - item 2
+          indent = next.getStartMark().getColumn();
+        } else if (next.getStartMark().getColumn() == token.getStartMark().getColumn()) {
+          //   -
+          //   key: value
+          indent = next.getStartMark().getColumn();
+        } else {
+          //   -
+          //     item 1
+          //   -
+          //     key:
+          //       value
+          indent = stack.detectIndent(token.getStartMark().getColumn(), next);
+        }
 
-      if (next.getStartMark().getLine() == token.getEndMark().getLine()) {
-        //   - item 1
-        //   - item 2
-        indent = next.getStartMark().getColumn();
-      } else if (next.getStartMark().getColumn() == token.getStartMark().getColumn()) {
-        //   -
-        //   key: value
-        indent = next.getStartMark().getColumn();
-      } else {
-        //   -
-        //     item 1
-        //   -
-        //     key:
-        //       value
-        indent = detectIndent(token.getStartMark().getColumn(), next, context);
-      }
+        stack.push(LABEL.B_ENT, indent);
+        break;
 
-      stack.add(new Parent(LABEL.B_ENT, indent));
+      case FlowSequenceStart:
+        if (next.getStartMark().getLine() == token.getStartMark().getLine()) {
+          //   - [a, b]
+          indent = next.getStartMark().getColumn();
+        } else {
+          //   - [
+          //   a, b
+          // ]
+          indent = stack.detectIndent(stack.curLineIndent, next);
+        }
 
-    } else if (token instanceof FlowSequenceStartToken) {
-      if (next.getStartMark().getLine() == token.getStartMark().getLine()) {
-        //   - [a, b]
-        indent = next.getStartMark().getColumn();
-      } else {
-        //   - [
-        //   a, b
-        // ]
-        indent = detectIndent((int) context.get(CURRENT_LINE_INDENT_KEY), next, context);
-      }
+        stack.push(LABEL.F_SEQ, indent, stack.curLineIndent);
+        break;
 
-      stack.add(new Parent(LABEL.F_SEQ, indent, (int) context.get(CURRENT_LINE_INDENT_KEY)));
+      case Key:
+        stack.push(LABEL.KEY, stack.getIndent(top));
+        if (isExplicitKey(token)) {
+          stack.setExplicitKey(stack.size() - 1);
+        }
+        break;
 
-    } else if (token instanceof KeyToken) {
-      indent = stack.get(stack.size() - 1).indent;
+      case Value:
+        if (stack.getLabel(top) != LABEL.KEY) {
+          throw new UnexpectedTokenException();
+        }
+        pushValue(stack, prev, next, nextnext);
+        break;
 
-      stack.add(new Parent(LABEL.KEY, indent));
+      default:
+        break;
+    }
 
-      stack.get(stack.size() - 1).explicitKey = isExplicitKey(token);
+    popConsumed(stack, id, next);
 
-    } else if (token instanceof ValueToken) {
-      if (stack.get(stack.size() - 1).type != LABEL.KEY) {
-        throw new UnexpectedTokenException();
-      }
+    return problems;
+  }
 
-      // Special cases:
-      //     key: &anchor
-      //       value
-      // and:
-      //     key: !!tag
-      //       value
-      if (next instanceof AnchorToken || next instanceof TagToken) {
-        if (next.getStartMark().getLine() == prev.getStartMark().getLine()
-            && next.getStartMark().getLine() < nextnext.getStartMark().getLine()) {
-          // May not be a good Java practice but it is the easiest way to proceed
-          next = nextnext;
-        }
+  /**
+   * Pushes the indentation of a non-empty mapping value
+   *
+   * @param stack the indentation stack, with the key on top
+   * @param prev the token before the value token
+   * @param next the token after the value token
+   * @param nextnext the token after next
+   */
+  private void pushValue(IndentStack stack, Token prev, Token next, Token nextnext) {
+    int top = stack.size() - 1;
+
+    // Special cases:
+    //     key: &anchor
+    //       value
+    // and:
+    //     key: !!tag
+    //       value
+    if (next instanceof AnchorToken || next instanceof TagToken) {
+      if (next.getStartMark().getLine() == prev.getStartMark().getLine()
+          && next.getStartMark().getLine() < nextnext.getStartMark().getLine()) {
+        // May not be a good Java practice but it is the easiest way to proceed
+        next = nextnext;
       }
+    }
 
-      // Only if value is not empty
-      if (!(next instanceof BlockEndToken
-          || next instanceof FlowMappingEndToken
-          || next instanceof FlowSequenceEndToken
-          || next instanceof KeyToken)) {
-        if (stack.get(stack.size() - 1).explicitKey) {
-          //   ? k
-          //   : value
-          // or
-          //   ? k
-          //   :
-          //     value
-          indent = detectIndent(stack.get(stack.size() - 1).indent, next, context);
-        } else if (next.getStartMark().getLine() == prev.getStartMark().getLine()) {
-          //   k: value
-          indent = next.getStartMark().getColumn();
-        } else if (next instanceof BlockSequenceStartToken || next instanceof BlockEntryToken) {
-          //  NOTE: We add BlockEntryToken in the test above because
-          //  sometimes BlockSequenceStartToken are not issued. Try
-          //  yaml.scan()ning this:
-          //      '- lib:\n'
-          //      '  - var\n'
-          if (context.get(OPTION_INDENT_SEQUENCES) instanceof Boolean
-              && !(boolean) context.get(OPTION_INDENT_SEQUENCES)) {
-            indent = stack.get(stack.size() - 1).indent;
-          } else if (context.get(OPTION_INDENT_SEQUENCES) instanceof Boolean
-              && (boolean) context.get(OPTION_INDENT_SEQUENCES)) {
-            if (OPTION_CONSISTENT.equals(context.get(OPTION_SPACES))
-                && next.getStartMark().getColumn() - stack.get(stack.size() - 1).indent == 0) {
-              // In this case, the block sequence item is not indented
-              // (while it should be), but we don't know yet the
-              // indentation it should have (because `spaces` is
-              // `consistent` and its value has not been computed yet
-              // -- this is probably the beginning of the document).
-              // So we choose an unknown value (-1).
-              indent = -1;
-            } else {
-              indent = detectIndent(stack.get(stack.size() - 1).indent, next, context);
-            }
-          } else { // 'whatever' or 'consistent'
-            if (next.getStartMark().getColumn() == stack.get(stack.size() - 1).indent) {
-              //   key:
-              //   - e1
-              //   - e2
-              if (OPTION_CONSISTENT.equals(context.get(OPTION_INDENT_SEQUENCES))) {
-                context.put(OPTION_INDENT_SEQUENCES, false);
-              }
-              indent = stack.get(stack.size() - 1).indent;
-            } else {
-              if (OPTION_CONSISTENT.equals(context.get(OPTION_INDENT_SEQUENCES))) {
-                context.put(OPTION_INDENT_SEQUENCES, true);
-              }
-              //   key:
-              //     - e1
-              //     - e2
-              indent = detectIndent(stack.get(stack.size() - 1).indent, next, context);
-            }
+    // Only if value is not empty
+    if (next instanceof BlockEndToken
+        || next instanceof FlowMappingEndToken
+        || next instanceof FlowSequenceEndToken
+        || next instanceof KeyToken) {
+      return;
+    }
+
+    int indent;
+    if (stack.isExplicitKey(top)) {
+      //   ? k
+      //   : value
+      // or
+      //   ? k
+      //   :
+      //     value
+      indent = stack.detectIndent(stack.getIndent(top), next);
+    } else if (next.getStartMark().getLine() == prev.getStartMark().getLine()) {
+      //   k: value
+      indent = next.getStartMark().getColumn();
+    } else if (next instanceof BlockSequenceStartToken || next instanceof BlockEntryToken) {
+      //  NOTE: We add BlockEntryToken in the test above because
+      //  sometimes BlockSequenceStartToken are not issued. Try
+      //  yaml.scan()ning this:
+      //      '- lib:\n'
+      //      '  - var\n'
+      if (stack.indentSequences == IndentStack.FALSE) {
+        indent = stack.getIndent(top);
+      } else if (stack.indentSequences == IndentStack.TRUE) {
+        if (stack.spaces == IndentStack.UNKNOWN
+            && next.getStartMark().getColumn() - stack.getIndent(top) == 0) {
+          // In this case, the block sequence item is not indented
+          // (while it should be), but we don't know yet the
+          // indentation it should have (because `spaces` is
+          // `consistent` and its value has not been computed yet
+          // -- this is probably the beginning of the document).
+          // So we choose an unknown value (-1).
+          indent = -1;
+        } else {
+          indent = stack.detectIndent(stack.getIndent(top), next);
+        }
+      } else { // 'whatever' or 'consistent'
+        if (next.getStartMark().getColumn() == stack.getIndent(top)) {
+          //   key:
+          //   - e1
+          //   - e2
+          if (stack.indentSequences == IndentStack.CONSISTENT) {
+            stack.indentSequences = IndentStack.FALSE;
           }
+          indent = stack.getIndent(top);
         } else {
-          //   k:
-          //     value
-          indent = detectIndent(stack.get(stack.size() - 1).indent, next, context);
+          if (stack.indentSequences == IndentStack.CONSISTENT) {
+            stack.indentSequences = IndentStack.TRUE;
+          }
+          //   key:
+          //     - e1
+          //     - e2
+          indent = stack.detectIndent(stack.getIndent(top), next);
         }
-
-        stack.add(new Parent(LABEL.VAL, indent));
       }
+    } else {
+      //   k:
+      //     value
+      indent = stack.detectIndent(stack.getIndent(top), next);
     }
 
+    stack.push(LABEL.VAL, indent);
+  }
+
+  /**
+   * Pops the indentation contexts closed by the current token
+   *
+   * @param stack the indentation stack
+   * @param id the identifier of the current token type
+   * @param next the next token
+   */
+  private void popConsumed(IndentStack stack, Token.ID id, Token next) {
     boolean consumedCurrentToken = false;
     while (true) {
-      if ((stack.get(stack.size() - 1).type == LABEL.F_SEQ
-              && token instanceof FlowSequenceEndToken
-              && !consumedCurrentToken)
-          || (stack.get(stack.size() - 1).type == LABEL.F_MAP
-              && token instanceof FlowMappingEndToken
-              && !consumedCurrentToken)
-          || ((stack.get(stack.size() - 1).type == LABEL.B_MAP
-                  || stack.get(stack.size() - 1).type == LABEL.B_SEQ)
-              && token instanceof BlockEndToken
-              && !stack.get(stack.size() - 1).implicitBlockSeq
-              && !consumedCurrentToken)) {
-        stack.remove(stack.size() - 1);
+      int top = stack.size() - 1;
+      LABEL label = stack.getLabel(top);
+      if (!consumedCurrentToken
+          && ((label == LABEL.F_SEQ && id == Token.ID.FlowSequenceEnd)
+              || (label == LABEL.F_MAP && id == Token.ID.FlowMappingEnd)
+              || ((label == LABEL.B_MAP || label == LABEL.B_SEQ)
+                  && id == Token.ID.BlockEnd
+                  && !stack.isImplicitBlockSeq(top)))) {
+        stack.pop(1);
         consumedCurrentToken = true;
 
-      } else if (stack.get(stack.size() - 1).type == LABEL.B_ENT
-          && !(token instanceof BlockEntryToken)
-          && stack.get(stack.size() - 2).implicitBlockSeq
-          && !(token instanceof AnchorToken || token instanceof TagToken)
+      } else if (label == LABEL.B_ENT
+          && id != Token.ID.BlockEntry
+          && stack.isImplicitBlockSeq(top - 1)
+          && id != Token.ID.Anchor
+          && id != Token.ID.Tag
           && !(next instanceof BlockEntryToken)) {
-        stack.remove(stack.size() - 1);
-        stack.remove(stack.size() - 1);
+        stack.pop(2);
 
-      } else if (stack.get(stack.size() - 1).type == LABEL.B_ENT
+      } else if (label == LABEL.B_ENT
           && (next instanceof BlockEntryToken || next instanceof BlockEndToken)) {
-        stack.remove(stack.size() - 1);
+        stack.pop(1);
 
-      } else if (stack.get(stack.size() - 1).type == LABEL.VAL
-          && !(token instanceof ValueToken)
-          && !(token instanceof AnchorToken || token instanceof TagToken)) {
-        if (stack.get(stack.size() - 2).type != LABEL.KEY) {
+      } else if (label == LABEL.VAL
+          && id != Token.ID.Value
+          && id != Token.ID.Anchor
+          && id != Token.ID.Tag) {
+        if (stack.getLabel(top - 1) != LABEL.KEY) {
           throw new UnexpectedTokenException();
         }
-        stack.remove(stack.size() - 1);
-        stack.remove(stack.size() - 1);
+        stack.pop(2);
 
-      } else if (stack.get(stack.size() - 1).type == LABEL.KEY
+      } else if (label == LABEL.KEY
           && (next instanceof BlockEndToken
               || next instanceof FlowMappingEndToken
               || next instanceof FlowSequenceEndToken
               || next instanceof KeyToken)) {
         // A key without a value: it's part of a set. Let's drop this key
         // and leave room for the next one.
-        stack.remove(stack.size() - 1);
+        stack.pop(1);
 
       } else {
         break;
       }
     }
-
-    return problems;
   }
 
-  private int detectIndent(int baseIndent, Token next, Map<String, Object> context) {
-    if (!(context.get(OPTION_SPACES) instanceof Integer)) {
-      context.put(OPTION_SPACES, next.getStartMark().getColumn() - baseIndent);
+  /**
+   * Indentation state of a file: a stack of indentation contexts stored in primitive arrays, plus
+   * the line being checked and the detected {@code spaces} and {@code indent-sequences} values. As
+   * a list, it shows the contexts as {@code LABEL:indent} strings (e.g. {@code B_MAP:0}), the first
+   * one being the root context.
+   */
+  static final class IndentStack extends AbstractList<String> {
+    /** Value of {@code spaces} not detected yet */
+    static final int UNKNOWN = Integer.MIN_VALUE;
+    /** {@code indent-sequences} values */
+    static final int FALSE = 0;
+
+    static final int TRUE = 1;
+    static final int WHATEVER = 2;
+    static final int CONSISTENT = 3;
+
+    private static final LABEL[] LABELS = LABEL.values();
+    private static final int EXPLICIT_KEY = 1;
+    private static final int IMPLICIT_BLOCK_SEQ = 2;
+
+    private byte[] labels = new byte[16];
+    private int[] indents = new int[16];
+    private int[] lineIndents = new int[16];
+    private byte[] flags = new byte[16];
+    private int size = 0;
+
+    /** Last line (1-based) of the last visible token */
+    int curLine = -1;
+    /** Indentation of the first token of the current line */
+    int curLineIndent = 0;
+    /** Number of spaces of an indentation level, {@link #UNKNOWN} until detected */
+    int spaces;
+    /** Current {@code indent-sequences} value */
+    int indentSequences;
+
+    IndentStack(Map<Object, Object> conf) {
+      push(LABEL.ROOT, 0);
+      Object confSpaces = conf.get(OPTION_SPACES);
+      spaces = confSpaces instanceof Integer i ? i : UNKNOWN;
+      Object confIndentSequences = conf.get(OPTION_INDENT_SEQUENCES);
+      if (confIndentSequences instanceof Boolean b) {
+        indentSequences = b ? TRUE : FALSE;
+      } else if (OPTION_CONSISTENT.equals(confIndentSequences)) {
+        indentSequences = CONSISTENT;
+      } else {
+        indentSequences = WHATEVER;
+      }
+    }
+
+    void push(LABEL label, int indent) {
+      push(label, indent, UNKNOWN);
     }
 
-    return baseIndent + (int) context.get(OPTION_SPACES);
-  }
+    void push(LABEL label, int indent, int lineIndent) {
+      if (size == labels.length) {
+        labels = Arrays.copyOf(labels, size * 2);
+        indents = Arrays.copyOf(indents, size * 2);
+        lineIndents = Arrays.copyOf(lineIndents, size * 2);
+        flags = Arrays.copyOf(flags, size * 2);
+      }
+      labels[size] = (byte) label.ordinal();
+      indents[size] = indent;
+      lineIndents[size] = lineIndent;
+      flags[size] = 0;
+      size++;
+    }
+
+    void pop(int count) {
+      size -= count;
+    }
+
+    LABEL getLabel(int i) {
+      return LABELS[labels[i]];
+    }
+
+    int getIndent(int i) {
+      return indents[i];
+    }
+
+    int getLineIndent(int i) {
+      if (lineIndents[i] == UNKNOWN) {
+        // Only flow collections know the indentation of the line they start in
+        throw new UnexpectedTokenException();
+      }
+      return lineIndents[i];
+    }
+
+    boolean isExplicitKey(int i) {
+      return (flags[i] & EXPLICIT_KEY) != 0;
+    }
+
+    void setExplicitKey(int i) {
+      flags[i] |= EXPLICIT_KEY;
+    }
+
+    boolean isImplicitBlockSeq(int i) {
+      return (flags[i] & IMPLICIT_BLOCK_SEQ) != 0;
+    }
+
+    void setImplicitBlockSeq(int i) {
+      flags[i] |= IMPLICIT_BLOCK_SEQ;
+    }
 
-  /** Wrapper class for parent token */
-  public class Parent {
-    private LABEL type;
-    private Integer indent;
-    private Integer lineIndent;
-    private boolean explicitKey;
-    private boolean implicitBlockSeq;
-
-    /**
-     * Constructor
-     *
-     * @param type the type of parent token
-     * @param indent the indentation of this parent token
-     */
-    public Parent(LABEL type, int indent) {
-      this(type, indent, null);
+    int detectIndent(int baseIndent, int foundIndent) {
+      if (spaces == UNKNOWN) {
+        spaces = foundIndent - baseIndent;
+      }
+      return baseIndent + spaces;
     }
 
-    /**
-     * Constructor
-     *
-     * @param type the type of parent token
-     * @param indent the indentation of this parent token
-     * @param lineIndent the line number of this parent token
-     */
-    public Parent(LABEL type, int indent, Integer lineIndent) {
-      this.type = type;
-      this.indent = indent;
-      this.lineIndent = lineIndent;
-      explicitKey = false;
-      implicitBlockSeq = false;
+    int detectIndent(int baseIndent, Token next) {
+      return detectIndent(baseIndent, next.getStartMark().getColumn());
+    }
+
+    @Override
+    public String get(int index) {
+      return "%1$s:%2$d".formatted(getLabel(index), indents[index]);
     }
 
     @Override
-    public String toString() {
-      return "%1$s:%2$d".formatted(type, indent);
+    public int size() {
+      return size;
     }
   }
 
-  private class UnexpectedTokenException extends RuntimeException {}
+  private static class UnexpectedTokenException extends RuntimeException {}
 }
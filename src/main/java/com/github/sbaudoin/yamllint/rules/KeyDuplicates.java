@@ -16,6 +16,7 @@
 package com.github.sbaudoin.yamllint.rules;
 
 import com.github.sbaudoin.yamllint.LintProblem;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -71,17 +72,19 @@ public class KeyDuplicates extends KeyRule {
       Token nextnext,
       Map<String, Object> context,
       final List<Parent> stack) {
-    if (stack.get(stack.size() - 1).keys.contains(((ScalarToken) next).getValue())
-        &&
-        // `<<` is "merge key", see http://yaml.org/type/merge.html
-        !"<<".equals(((ScalarToken) next).getValue())) {
+    String key = ((ScalarToken) next).getValue();
+    Parent parent = stack.get(stack.size() - 1);
+    if (parent.keys == null) {
+      parent.keys = new HashSet<>();
+    }
+    // `<<` is "merge key", see http://yaml.org/type/merge.html
+    if (!parent.keys.add(key) && !"<<".equals(key)) {
       return Optional.of(
           new LintProblem(
               next.getStartMark().getLine() + 1,
               next.getStartMark().getColumn() + 1,
-              "duplication of key '" + ((ScalarToken) next).getValue() + "' in mapping"));
+              "duplication of key '" + key + "' in mapping"));
     } else {
-      stack.get(stack.size() - 1).keys.add(((ScalarToken) next).getValue());
       return Optional.empty();
     }
   }
@@ -16,7 +16,11 @@
 package com.github.sbaudoin.yamllint.rules;
 
 import com.github.sbaudoin.yamllint.LintProblem;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import org.yaml.snakeyaml.tokens.ScalarToken;
@@ -27,6 +31,17 @@ import org.yaml.snakeyaml.tokens.Token;
  * Unicode code point number. As a result, the ordering is case-sensitive and not accent-friendly
  * (see examples below).
  *
+ * <p>Options:
+ *
+ * <ul>
+ *   <li>{@code locale} is an IETF BCP 47 language tag (e.g. {@code fr} or {@code en-US}). When set,
+ *       the keys are ordered according to the rules of this locale instead of the Unicode code
+ *       point number, making the ordering accent-friendly. Defaults to {@code ""} (no locale).
+ * </ul>
+ *
+ * <p>Only the greatest key of each mapping is remembered: checking a key does not depend on the
+ * number of keys of the mapping.
+ *
  * <p>Examples:
  *
  * <p>With <code>key-ordering: {}</code> the following code snippet would **PASS**:
@@ -72,8 +87,40 @@ import org.yaml.snakeyaml.tokens.Token;
  *     - haïr: true
  *       hais: true
  * </pre>
+ *
+ * <p>With <code>key-ordering: {locale: fr}</code> the following code snippet would **PASS**:
+ *
+ * <pre>
+ *     - hair: true
+ *       haïr: true
+ *       hais: true
+ *       haïssable: true
+ * </pre>
  */
 public class KeyOrdering extends KeyRule {
+  private static final String COLLATOR_KEY = "collator";
+
+  /** Name of the "locale" option */
+  public static final String OPTION_LOCALE = "locale";
+
+  /** Constructor. Sets default values to rule options. */
+  public KeyOrdering() {
+    registerOption(OPTION_LOCALE, "");
+  }
+
+  @Override
+  public String validate(Map<String, Object> conf) {
+    String locale = (String) conf.get(OPTION_LOCALE);
+    if (locale != null && !"".equals(locale)) {
+      Locale l = Locale.forLanguageTag(locale);
+      if ("und".equals(l.toLanguageTag())
+          || !Arrays.asList(Locale.getISOLanguages()).contains(l.getLanguage())) {
+        return "\"%s\" is not a valid locale".formatted(locale);
+      }
+    }
+    return null;
+  }
+
   @Override
   protected Optional<LintProblem> checkKey(
       Map<Object, Object> conf,
@@ -83,16 +130,48 @@ public class KeyOrdering extends KeyRule {
       Token nextnext,
       Map<String, Object> context,
       final List<Parent> stack) {
-    if (stack.get(stack.size() - 1).keys.stream()
-        .anyMatch(key -> key.compareTo(((ScalarToken) next).getValue()) > 0)) {
+    Parent parent = stack.get(stack.size() - 1);
+    String value = ((ScalarToken) next).getValue();
+
+    boolean wrongOrder;
+    Object key;
+    Collator collator = getCollator(conf, context);
+    if (collator == null) {
+      key = value;
+      wrongOrder = parent.maxKey != null && ((String) parent.maxKey).compareTo(value) > 0;
+    } else {
+      CollationKey collationKey = collator.getCollationKey(value);
+      key = collationKey;
+      wrongOrder =
+          parent.maxKey != null && ((CollationKey) parent.maxKey).compareTo(collationKey) > 0;
+    }
+
+    if (wrongOrder) {
       return Optional.of(
           new LintProblem(
               next.getStartMark().getLine() + 1,
               next.getStartMark().getColumn() + 1,
-              "wrong ordering of key " + ((ScalarToken) next).getValue() + " in mapping"));
+              "wrong ordering of key " + value + " in mapping"));
     } else {
-      stack.get(stack.size() - 1).keys.add(((ScalarToken) next).getValue());
+      parent.maxKey = key;
       return Optional.empty();
     }
   }
+
+  /**
+   * Returns the collator to be used to compare keys, created once per file
+   *
+   * @param conf the rule configuration
+   * @param context a context map used to propagate info between rules
+   * @return a collator or {@code null} if the keys are compared by Unicode code point number
+   */
+  private Collator getCollator(Map<Object, Object> conf, Map<String, Object> context) {
+    String locale = (String) conf.get(OPTION_LOCALE);
+    if (locale == null || "".equals(locale)) {
+      return null;
+    }
+    return (Collator)
+        context.computeIfAbsent(
+            COLLATOR_KEY, k -> Collator.getInstance(Locale.forLanguageTag(locale)));
+  }
 }
@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.yaml.snakeyaml.tokens.*;
 
 /**
@@ -39,27 +40,31 @@ public abstract class KeyRule extends TokenRule {
       Map<String, Object> context) {
     List<LintProblem> problems = new ArrayList<>();
 
-    context.putIfAbsent(STACK_KEY, new ArrayList<Parent>());
+    StructureTracker structure = getTokenAnalysis(token, context).getStructure();
 
-    List<Parent> stack = (List<Parent>) context.get(STACK_KEY);
+    // This check is done because KeyTokens can be found inside flow
+    // sequences... strange, but allowed.
+    if (token instanceof KeyToken
+        && next instanceof ScalarToken
+        && structure.getContainer() == StructureTracker.Container.MAP) {
+      List<Parent> stack =
+          (List<Parent>) context.computeIfAbsent(STACK_KEY, k -> new ArrayList<Parent>());
 
-    if (token instanceof BlockMappingStartToken || token instanceof FlowMappingStartToken) {
-      stack.add(new Parent(TYPE.MAP));
-    } else if (token instanceof BlockSequenceStartToken
-        || token instanceof FlowSequenceStartToken) {
-      stack.add(new Parent(TYPE.SEQ));
-    } else if (token instanceof BlockEndToken
-        || token instanceof FlowMappingEndToken
-        || token instanceof FlowSequenceEndToken) {
-      if (!stack.isEmpty()) {
+      // Keep only the mappings enclosing the current one, which replaces any previous mapping of
+      // the same depth
+      int depth = structure.getDepth();
+      while (stack.size() > depth) {
         stack.remove(stack.size() - 1);
       }
-    } else if (token instanceof KeyToken && next instanceof ScalarToken) {
-      // This check is done because KeyTokens can be found inside flow
-      // sequences... strange, but allowed.
-      if (!stack.isEmpty() && stack.get(stack.size() - 1).type == TYPE.MAP) {
-        checkKey(conf, token, prev, next, nextnext, context, stack).ifPresent(problems::add);
+      while (stack.size() < depth) {
+        stack.add(null);
       }
+      Parent parent = stack.get(depth - 1);
+      if (parent == null || parent.containerId != structure.getContainerId()) {
+        stack.set(depth - 1, new Parent(structure.getContainerId()));
+      }
+
+      checkKey(conf, token, prev, next, nextnext, context, stack).ifPresent(problems::add);
     }
 
     return problems;
@@ -74,7 +79,8 @@ public abstract class KeyRule extends TokenRule {
    * @param next the next token
    * @param nextnext the next next token
    * @param context a context map used to propagate info between rules
-   * @param stack a list of all keys found in the YAML document
+   * @param stack the mappings enclosing the key, the last one being the mapping of the key (the
+   *     elements of the enclosing sequences are {@code null})
    * @return the possible problem found during the check process
    */
   protected abstract Optional<LintProblem> checkKey(
@@ -86,24 +92,28 @@ public abstract class KeyRule extends TokenRule {
       Map<String, Object> context,
       List<Parent> stack);
 
-  private enum TYPE {
-    MAP,
-    SEQ
-  }
-
-  /** Wrapper class for the parent token */
+  /** Wrapper class for the parent mapping */
   protected class Parent {
-    TYPE type;
-    List<String> keys;
+    /** Identifier of the mapping, as given by the {@link StructureTracker} */
+    int containerId;
+    /**
+     * Keys found so far in this mapping, hashed so that lookups do not depend on its size (used by
+     * {@link KeyDuplicates}, which creates it on the first key)
+     */
+    Set<String> keys;
+    /**
+     * Greatest key found so far in this mapping, as a {@code String} or a {@code CollationKey}
+     * (used by {@link KeyOrdering})
+     */
+    Object maxKey;
 
     /**
      * Constructor
      *
-     * @param type the type of the parent token
+     * @param containerId the identifier of the mapping
      */
-    public Parent(TYPE type) {
-      this.type = type;
-      this.keys = new ArrayList<>();
+    public Parent(int containerId) {
+      this.containerId = containerId;
     }
   }
 }
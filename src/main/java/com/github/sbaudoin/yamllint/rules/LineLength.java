@@ -16,14 +16,13 @@
 package com.github.sbaudoin.yamllint.rules;
 
 import com.github.sbaudoin.yamllint.LintProblem;
-import com.github.sbaudoin.yamllint.LintScanner;
-import com.github.sbaudoin.yamllint.LintStreamReader;
 import com.github.sbaudoin.yamllint.Parser;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import org.yaml.snakeyaml.scanner.ScannerException;
-import org.yaml.snakeyaml.tokens.BlockMappingStartToken;
+import org.yaml.snakeyaml.tokens.FlowMappingStartToken;
+import org.yaml.snakeyaml.tokens.FlowSequenceStartToken;
+import org.yaml.snakeyaml.tokens.KeyToken;
 import org.yaml.snakeyaml.tokens.ScalarToken;
 import org.yaml.snakeyaml.tokens.Token;
 import org.yaml.snakeyaml.tokens.ValueToken;
@@ -125,11 +124,8 @@ public class LineLength extends LineRule {
     List<LintProblem> problems = new ArrayList<>();
 
     if (line.getEnd() - line.getStart() > (int) conf.get("max")) {
-      boolean anbw = (boolean) conf.get(OPTION_ALLOW_NON_BREAKABLE_WORDS);
-      conf.put(
-          OPTION_ALLOW_NON_BREAKABLE_WORDS,
-          anbw || (boolean) conf.get(OPTION_ALLOW_NON_BREAKABLE_INLINE_MAPPINGS));
-      if ((boolean) conf.get(OPTION_ALLOW_NON_BREAKABLE_WORDS)) {
+      boolean anbim = (boolean) conf.get(OPTION_ALLOW_NON_BREAKABLE_INLINE_MAPPINGS);
+      if ((boolean) conf.get(OPTION_ALLOW_NON_BREAKABLE_WORDS) || anbim) {
         int start = line.getStart();
         while (start < line.getEnd() && line.getBuffer().charAt(start) == ' ') {
           start += 1;
@@ -150,8 +146,7 @@ public class LineLength extends LineRule {
             return problems;
           }
 
-          if ((boolean) conf.get(OPTION_ALLOW_NON_BREAKABLE_INLINE_MAPPINGS)
-              && checkInlineMapping(line)) {
+          if (anbim && checkInlineMapping(line)) {
             return problems;
           }
         }
@@ -171,25 +166,33 @@ public class LineLength extends LineRule {
     return problems;
   }
 
+  /**
+   * Tells if the line holds a block mapping whose value is a scalar with no space in it, up to the
+   * end of the line, using the tokens found on this line by the main pass. Lines that hold a flow
+   * collection are not inline mappings.
+   *
+   * @param line a line
+   * @return {@code true} if the line is a non-breakable inline mapping
+   */
   private boolean checkInlineMapping(Parser.Line line) {
-    LintScanner loader = new LintScanner(new LintStreamReader(line.getContent()));
-    try {
-      while (loader.peekToken() != null) {
-        if (loader.getToken() instanceof BlockMappingStartToken) {
-          while (loader.peekToken() != null) {
-            if (loader.getToken() instanceof ValueToken) {
-              Token t = loader.getToken();
-              if (t instanceof ScalarToken) {
-                return (line.getContent().indexOf(' ', t.getStartMark().getColumn()) < 0);
-              }
-            }
-          }
+    List<Token> tokens = line.getTokens();
+    for (Token token : tokens) {
+      if (token instanceof FlowMappingStartToken || token instanceof FlowSequenceStartToken) {
+        return false;
+      }
+    }
+    boolean inMapping = false;
+    for (int i = 0; i < tokens.size() - 1; i++) {
+      Token token = tokens.get(i);
+      if (token instanceof KeyToken) {
+        inMapping = true;
+      } else if (inMapping && token instanceof ValueToken) {
+        Token next = tokens.get(++i);
+        if (next instanceof ScalarToken) {
+          return line.getContent().indexOf(' ', next.getStartMark().getColumn()) < 0;
         }
       }
-    } catch (ScannerException e) {
-      // Do nothing
     }
-
     return false;
   }
 }
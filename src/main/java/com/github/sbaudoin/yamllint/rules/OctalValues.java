@@ -66,8 +66,6 @@ import org.yaml.snakeyaml.tokens.Token;
  * </pre>
  */
 public class OctalValues extends TokenRule {
-  private static final String IS_OCTAL_NUMBER_PATTERN = "^[0-7]+$";
-
   /** Name of the "forbid-implicit-octal" option */
   public static final String OPTION_FORBID_IMPLICIT_OCTAL = "forbid-implicit-octal";
   /** Name of the "forbid-explicit-octal" option */
@@ -97,10 +95,7 @@ public class OctalValues extends TokenRule {
       if (token instanceof ScalarToken scalarToken) {
         if (scalarToken.getStyle().getChar() == null) {
           String val = scalarToken.getValue();
-          if (isDigit(val)
-              && val.length() > 1
-              && val.charAt(0) == '0'
-              && val.substring(1).matches(IS_OCTAL_NUMBER_PATTERN)) {
+          if (getScalarInfo(scalarToken, context).getKind() == ScalarInfo.Kind.IMPLICIT_OCTAL) {
             problems.add(
                 new LintProblem(
                     token.getStartMark().getLine() + 1,
@@ -115,9 +110,7 @@ public class OctalValues extends TokenRule {
       if (token instanceof ScalarToken scalarToken) {
         if (scalarToken.getStyle().getChar() == null) {
           String val = scalarToken.getValue();
-          if (val.length() > 2
-              && "0o".equals(val.substring(0, 2))
-              && val.substring(2).matches(IS_OCTAL_NUMBER_PATTERN)) {
+          if (getScalarInfo(scalarToken, context).getKind() == ScalarInfo.Kind.EXPLICIT_OCTAL) {
             problems.add(
                 new LintProblem(
                     token.getStartMark().getLine() + 1,
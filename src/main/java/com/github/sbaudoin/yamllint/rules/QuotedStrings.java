@@ -16,15 +16,11 @@
 package com.github.sbaudoin.yamllint.rules;
 
 import com.github.sbaudoin.yamllint.LintProblem;
-import com.github.sbaudoin.yamllint.LintScanner;
-import com.github.sbaudoin.yamllint.LintStreamReader;
 import java.util.*;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import org.yaml.snakeyaml.DumperOptions;
-import org.yaml.snakeyaml.nodes.NodeId;
 import org.yaml.snakeyaml.nodes.Tag;
-import org.yaml.snakeyaml.resolver.Resolver;
-import org.yaml.snakeyaml.scanner.ScannerException;
 import org.yaml.snakeyaml.tokens.*;
 
 /**
@@ -147,10 +143,6 @@ public class QuotedStrings extends TokenRule {
   private static final String MSG_NOT_QUOTED_WITH_QUOTES =
       "string value is not quoted with %s quotes";
   private static final List<String> FLOW_TOKENS = Arrays.asList(",", "[", "]", "{", "}");
-  private static final String FLOW_NEST_COUNT_KEY = "flow_nest_count";
-
-  private static final String OCTAL_INT_RE =
-      "^([-+]?0b[0-1_]+|[-+]?0o?[0-7_]+|[-+]?0[0-7_]+|[-+]?(?:0|[1-9][0-9_]*)|[-+]?0x[0-9a-fA-F_]+|[-+]?[1-9][0-9_]*(?::[0-5]?\\d)+)$";
 
   /** Name of the "quote-type" option */
   public static final String OPTION_QUOTE_TYPE = "quote-type";
@@ -196,6 +188,13 @@ public class QuotedStrings extends TokenRule {
         return "cannot use both \"required: false\" and \"extra-allowed\"";
       }
     }
+    for (String option : Arrays.asList(OPTION_EXTRA_REQUIRED, OPTION_EXTRA_ALLOWED)) {
+      try {
+        compile((List<?>) conf.get(option));
+      } catch (PatternSyntaxException e) {
+        return "invalid regexp in \"%s\": %s".formatted(option, e.getDescription());
+      }
+    }
     return null;
   }
 
@@ -210,15 +209,7 @@ public class QuotedStrings extends TokenRule {
       Map<String, Object> context) {
     List<LintProblem> problems = new ArrayList<>();
 
-    if (!context.containsKey(FLOW_NEST_COUNT_KEY)) {
-      context.put(FLOW_NEST_COUNT_KEY, 0);
-    }
-
-    if (token instanceof FlowMappingStartToken || token instanceof FlowSequenceStartToken) {
-      context.put(FLOW_NEST_COUNT_KEY, (int) context.get(FLOW_NEST_COUNT_KEY) + 1);
-    } else if (token instanceof FlowMappingEndToken || token instanceof FlowSequenceEndToken) {
-      context.put(FLOW_NEST_COUNT_KEY, (int) context.get(FLOW_NEST_COUNT_KEY) - 1);
-    }
+    TokenAnalysis analysis = getTokenAnalysis(token, context);
 
     if (!(token instanceof ScalarToken
         && (prev instanceof BlockEntryToken
@@ -235,10 +226,8 @@ public class QuotedStrings extends TokenRule {
     }
 
     // Ignore numbers, booleans, etc.
-    Resolver resolver = new Resolver();
-    // https://stackoverflow.com/a/36514274
-    resolver.addImplicitResolver(Tag.INT, Pattern.compile(OCTAL_INT_RE), "-+0123456789");
-    Tag tag = resolver.resolve(NodeId.scalar, ((ScalarToken) token).getValue(), true);
+    ScalarInfo info = analysis.getScalarInfo((ScalarToken) token);
+    Tag tag = info.getImplicitTag();
     if (((ScalarToken) token).getPlain() && tag != Tag.STR) {
       return problems;
     }
@@ -270,10 +259,9 @@ public class QuotedStrings extends TokenRule {
         msg = MSG_NOT_QUOTED_WITH_QUOTES.formatted(quoteType);
       } else if (((ScalarToken) token).getStyle() == DumperOptions.ScalarStyle.PLAIN) {
         boolean isExtraRequired =
-            ((List<String>) conf.get(OPTION_EXTRA_REQUIRED))
-                .stream()
-                    .anyMatch(
-                        r -> Pattern.compile(r).matcher(((ScalarToken) token).getValue()).find());
+            matchesAny(
+                getPatterns(conf, context, OPTION_EXTRA_REQUIRED),
+                ((ScalarToken) token).getValue());
         if (isExtraRequired) {
           msg = MSG_NOT_QUOTED;
         }
@@ -283,18 +271,14 @@ public class QuotedStrings extends TokenRule {
       if (((ScalarToken) token).getStyle() != DumperOptions.ScalarStyle.PLAIN
           && tag == Tag.STR
           && ((ScalarToken) token).getValue() != null
-          && !quotesAreNeeded(
-              ((ScalarToken) token).getValue(), (int) context.get(FLOW_NEST_COUNT_KEY) > 0)) {
+          && !quotesAreNeeded(info, analysis.getStructure().getFlowLevel() > 0)) {
         boolean isExtraRequired =
-            ((List<String>) conf.get(OPTION_EXTRA_REQUIRED))
-                .stream()
-                    .anyMatch(
-                        r -> Pattern.compile(r).matcher(((ScalarToken) token).getValue()).find());
+            matchesAny(
+                getPatterns(conf, context, OPTION_EXTRA_REQUIRED),
+                ((ScalarToken) token).getValue());
         boolean isExtraAllowed =
-            ((List<String>) conf.get(OPTION_EXTRA_ALLOWED))
-                .stream()
-                    .anyMatch(
-                        r -> Pattern.compile(r).matcher(((ScalarToken) token).getValue()).find());
+            matchesAny(
+                getPatterns(conf, context, OPTION_EXTRA_ALLOWED), ((ScalarToken) token).getValue());
         if (!(isExtraRequired || isExtraAllowed)) {
           msg = "string value is redundantly quoted with %s quotes".formatted(quoteType);
         }
@@ -307,14 +291,9 @@ public class QuotedStrings extends TokenRule {
         msg = MSG_NOT_QUOTED_WITH_QUOTES.formatted(quoteType);
       } else if (((ScalarToken) token).getStyle() == DumperOptions.ScalarStyle.PLAIN) {
         boolean isExtraRequired =
-            !((List<?>) conf.get(OPTION_EXTRA_REQUIRED)).isEmpty()
-                && ((List<String>) conf.get(OPTION_EXTRA_REQUIRED))
-                    .stream()
-                        .anyMatch(
-                            r ->
-                                Pattern.compile(r)
-                                    .matcher(((ScalarToken) token).getValue())
-                                    .find());
+            matchesAny(
+                getPatterns(conf, context, OPTION_EXTRA_REQUIRED),
+                ((ScalarToken) token).getValue());
         if (isExtraRequired) {
           msg = MSG_NOT_QUOTED;
         }
@@ -338,28 +317,44 @@ public class QuotedStrings extends TokenRule {
             && tokenStyle == DumperOptions.ScalarStyle.DOUBLE_QUOTED));
   }
 
-  private boolean quotesAreNeeded(String string, boolean isInsideAFlow) {
+  private boolean quotesAreNeeded(ScalarInfo info, boolean isInsideAFlow) {
     // Quotes needed on strings containing flow tokens
-    if (isInsideAFlow && FLOW_TOKENS.stream().anyMatch(string::contains)) {
+    if (isInsideAFlow && FLOW_TOKENS.stream().anyMatch(info.getToken().getValue()::contains)) {
       return true;
     }
+    return info.isQuotingNeeded();
+  }
 
-    LintScanner loader = new LintScanner(new LintStreamReader("key: " + string));
-    // Remove the 5 first tokens corresponding to 'key: ' (StreamStartToken, BlockMappingStartToken,
-    // KeyToken, ScalarToken(value = key), ValueToken)
-    for (int i = 0; i < 5; i++) {
-      loader.getToken();
+  /**
+   * Returns the compiled regexps of a list option, compiled once per file
+   *
+   * @param conf the rule configuration
+   * @param context a context map used to propagate info between rules
+   * @param option the name of the option
+   * @return the compiled regexps
+   */
+  @SuppressWarnings("unchecked")
+  private static List<Pattern> getPatterns(
+      Map<Object, Object> conf, Map<String, Object> context, String option) {
+    return (List<Pattern>)
+        context.computeIfAbsent(option, k -> compile((List<?>) conf.get(option)));
+  }
+
+  private static List<Pattern> compile(List<?> regexps) {
+    List<Pattern> patterns = new ArrayList<>(regexps.size());
+    for (Object regexp : regexps) {
+      patterns.add(Pattern.compile(String.valueOf(regexp)));
     }
-    try {
-      Token a = loader.getToken();
-      Token b = loader.getToken();
-      return !(a instanceof ScalarToken st
-          && st.getStyle() == DumperOptions.ScalarStyle.PLAIN
-          && b instanceof BlockEndToken
-          && string.equals(st.getValue()));
-    } catch (ScannerException e) {
-      return true;
+    return patterns;
+  }
+
+  private static boolean matchesAny(List<Pattern> patterns, String value) {
+    for (Pattern p : patterns) {
+      if (p.matcher(value).find()) {
+        return true;
+      }
     }
+    return false;
   }
 
   private boolean hasQuotedQuotes(Token token) {
@@ -17,6 +17,7 @@ package com.github.sbaudoin.yamllint.rules;
 
 import com.github.sbaudoin.yamllint.LintProblem;
 import com.github.sbaudoin.yamllint.Linter;
+import com.github.sbaudoin.yamllint.PathPatterns;
 import java.io.File;
 import java.util.*;
 import org.yaml.snakeyaml.tokens.ScalarToken;
@@ -32,7 +33,7 @@ import org.yaml.snakeyaml.tokens.Token;
  * @see TokenRule
  */
 public abstract class Rule {
-  private List<String> ignore = new ArrayList<>();
+  private PathPatterns ignore = PathPatterns.NONE;
   private Map<String, Object> parameters = new HashMap<>();
   private String level = Linter.ERROR_LEVEL;
   // We should implement an Option class but is it worth it?
@@ -72,7 +73,18 @@ public abstract class Rule {
    * @param ignore list of regex patterns representing files to be ignored by this rule
    */
   public void setIgnore(List<String> ignore) {
-    this.ignore = ignore;
+    setIgnore(ignore, PathPatterns.Syntax.REGEX);
+  }
+
+  /**
+   * Sets the patterns to tell is files are ignored
+   *
+   * @param ignore list of patterns representing files to be ignored by this rule
+   * @param syntax the syntax of the patterns
+   * @throws java.util.regex.PatternSyntaxException if one of the patterns is invalid
+   */
+  public void setIgnore(List<String> ignore, PathPatterns.Syntax syntax) {
+    this.ignore = PathPatterns.compile(ignore, syntax);
   }
 
   /**
@@ -82,15 +94,7 @@ public abstract class Rule {
    * @return <code>true</code> if the passed file is to be ignored, <code>false</code> if not
    */
   public boolean ignores(File file) {
-    if (file == null) {
-      return false;
-    }
-    for (String pattern : ignore) {
-      if (file.getPath().matches(pattern)) {
-        return true;
-      }
-    }
-    return false;
+    return file != null && ignore.matches(file.getPath());
   }
 
   /**
@@ -209,20 +213,14 @@ public abstract class Rule {
    */
   protected LintProblem spacesAfter(
       Token token, Token next, Integer min, Integer max, String minDesc, String maxDesc) {
-    int myMin = (min == null) ? -1 : min;
-    int myMax = (max == null) ? -1 : max;
-
-    if (next != null && token.getEndMark().getLine() == next.getStartMark().getLine()) {
-      int spaces = next.getStartMark().getIndex() - token.getEndMark().getIndex();
-      if (myMax != -1 && spaces > myMax) {
-        return new LintProblem(
-            token.getStartMark().getLine() + 1, next.getStartMark().getColumn(), maxDesc);
-      } else if (myMin != -1 && spaces < myMin) {
-        return new LintProblem(
-            token.getStartMark().getLine() + 1, next.getStartMark().getColumn() + 1, minDesc);
-      }
-    }
-    return null;
+    return getSpacesAfterProblem(
+        TokenAnalysis.countSpacesAfter(token, next),
+        token,
+        next,
+        (min == null) ? -1 : min,
+        (max == null) ? -1 : max,
+        minDesc,
+        maxDesc);
   }
 
   /**
@@ -244,20 +242,61 @@ public abstract class Rule {
    */
   protected LintProblem spacesBefore(
       Token token, Token prev, Integer min, Integer max, String minDesc, String maxDesc) {
-    int myMin = (min == null) ? -1 : min;
-    int myMax = (max == null) ? -1 : max;
-
-    if (prev != null
-        && prev.getEndMark().getLine() == token.getStartMark().getLine()
-        &&
-        // Discard tokens (only scalars ?) that end at the start of next line
-        (prev.getEndMark().getPointer() == 0
-            || prev.getEndMark().getBuffer()[prev.getEndMark().getPointer() - 1] != '\n')) {
-      int spaces = token.getStartMark().getPointer() - prev.getEndMark().getPointer();
-      if (myMax != -1 && spaces > myMax) {
+    return getSpacesBeforeProblem(
+        TokenAnalysis.countSpacesBefore(token, prev),
+        token,
+        (min == null) ? -1 : min,
+        (max == null) ? -1 : max,
+        minDesc,
+        maxDesc);
+  }
+
+  /**
+   * Compares a number of spaces after a token with the min and max accepted values
+   *
+   * @param spaces the number of spaces, or {@link TokenAnalysis#NOT_SAME_LINE}
+   * @param token the token to analyse
+   * @param next the next token with which the spaces were counted
+   * @param min the minimum number or expected spaces, -1 if no minimum required
+   * @param max the maximum number or expected spaces, -1 if no maximum required
+   * @param minDesc the problem description in case the number of spaces is less than <var>min</var>
+   * @param maxDesc the problem description in case the number of spaces is greater than
+   *     <var>max</var>
+   * @return a problem or <code>null</code> if no problem found
+   */
+  static LintProblem getSpacesAfterProblem(
+      int spaces, Token token, Token next, int min, int max, String minDesc, String maxDesc) {
+    if (spaces != TokenAnalysis.NOT_SAME_LINE) {
+      if (max != -1 && spaces > max) {
+        return new LintProblem(
+            token.getStartMark().getLine() + 1, next.getStartMark().getColumn(), maxDesc);
+      } else if (min != -1 && spaces < min) {
+        return new LintProblem(
+            token.getStartMark().getLine() + 1, next.getStartMark().getColumn() + 1, minDesc);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Compares a number of spaces before a token with the min and max accepted values
+   *
+   * @param spaces the number of spaces, or {@link TokenAnalysis#NOT_SAME_LINE}
+   * @param token the token to analyse
+   * @param min the minimum number or expected spaces, -1 if no minimum required
+   * @param max the maximum number or expected spaces, -1 if no maximum required
+   * @param minDesc the problem description in case the number of spaces is less than <var>min</var>
+   * @param maxDesc the problem description in case the number of spaces is greater than
+   *     <var>max</var>
+   * @return a problem or <code>null</code> if no problem found
+   */
+  static LintProblem getSpacesBeforeProblem(
+      int spaces, Token token, int min, int max, String minDesc, String maxDesc) {
+    if (spaces != TokenAnalysis.NOT_SAME_LINE) {
+      if (max != -1 && spaces > max) {
         return new LintProblem(
             token.getStartMark().getLine() + 1, token.getStartMark().getColumn(), maxDesc);
-      } else if (myMin != -1 && spaces < myMin) {
+      } else if (min != -1 && spaces < min) {
         return new LintProblem(
             token.getStartMark().getLine() + 1, token.getStartMark().getColumn() + 1, minDesc);
       }
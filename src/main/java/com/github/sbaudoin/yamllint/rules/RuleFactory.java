@@ -15,10 +15,10 @@
  */
 package com.github.sbaudoin.yamllint.rules;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.StreamSupport;
@@ -33,7 +33,7 @@ public class RuleFactory {
   /** The instance that holds this singleton */
   public static final RuleFactory instance = new RuleFactory();
 
-  private final Map<String, Rule> rules = new HashMap<>();
+  private final Map<String, Rule> rules = new ConcurrentHashMap<>();
 
   /**
    * Returns the list of rules registered in this package
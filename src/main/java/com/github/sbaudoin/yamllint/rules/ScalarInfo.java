@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint.rules;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+import org.yaml.snakeyaml.tokens.ScalarToken;
+
+/**
+ * Classification of a scalar value, shared by the rules that inspect the content of the scalars
+ * ({@code truthy}, {@code float-values}, {@code octal-values}, {@code quoted-strings}). The shape
+ * of the value is recognized once, in a single pass and without regular expressions, when the
+ * instance is created. The implicit tag and the need for quotes are computed on demand.
+ *
+ * @see TokenRule#getScalarInfo(ScalarToken, Map)
+ */
+public final class ScalarInfo {
+  /** Values that YAML 1.1 interprets as booleans */
+  public static final List<String> TRUTHY_VALUES =
+      Collections.unmodifiableList(
+          Arrays.asList(
+              "YES", "Yes", "yes", "NO", "No", "no", "TRUE", "True", "true", "FALSE", "False",
+              "false", "ON", "On", "on", "OFF", "Off", "off"));
+
+  private static final String OCTAL_INT_RE =
+      "^([-+]?0b[0-1_]+|[-+]?0o?[0-7_]+|[-+]?0[0-7_]+|[-+]?(?:0|[1-9][0-9_]*)|[-+]?0x[0-9a-fA-F_]+|[-+]?[1-9][0-9_]*(?::[0-5]?\\d)+)$";
+  private static final Resolver RESOLVER = new Resolver();
+
+  static {
+    // https://stackoverflow.com/a/36514274
+    RESOLVER.addImplicitResolver(Tag.INT, Pattern.compile(OCTAL_INT_RE), "-+0123456789");
+  }
+
+  /** Indicators that cannot start a plain scalar */
+  private static final String INDICATORS = "-?:,[]{}#&*!|>'\"%@`";
+  /** Line breaks as known by the YAML scanner, plus NUL that ends the stream */
+  private static final String BREAKS = "\0\r\n\u0085\u2028\u2029";
+  /** Maximum number of "quotes needed" decisions remembered for repeated values */
+  private static final int MAX_MEMO_SIZE = 4096;
+  /** Maximum length of the values whose "quotes needed" decision is remembered */
+  private static final int MAX_MEMO_KEY_LENGTH = 64;
+  /** Memo of the "quotes needed" decisions */
+  private static final Map<String, Boolean> QUOTES_NEEDED = new ConcurrentHashMap<>();
+
+  /** Shape of a scalar value */
+  public enum Kind {
+    /** One of the {@link #TRUTHY_VALUES} */
+    TRUTHY,
+    /** A decimal integer, e.g. {@code 42} */
+    INT,
+    /** An octal integer without the {@code 0o} prefix, e.g. {@code 010} */
+    IMPLICIT_OCTAL,
+    /** An octal integer with the {@code 0o} prefix, e.g. {@code 0o10} */
+    EXPLICIT_OCTAL,
+    /** A decimal float, possibly in scientific notation, e.g. {@code 1.5} or {@code 1e3} */
+    FLOAT,
+    /** An infinite value, e.g. {@code -.inf} */
+    INF,
+    /** A not a number value, e.g. {@code .nan} */
+    NAN,
+    /** Anything else */
+    OTHER
+  }
+
+  private final ScalarToken token;
+  private final Kind kind;
+  private final boolean scientific;
+  private final boolean missingLeadingNumeral;
+  private Tag tag;
+  private Boolean quotesNeeded;
+
+  /**
+   * Classifies a scalar
+   *
+   * @param token the scalar token to be classified
+   */
+  public ScalarInfo(ScalarToken token) {
+    this.token = token;
+
+    String value = token.getValue();
+    int length = value.length();
+    int i = 0;
+    if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+      i++;
+    }
+    int intStart = i;
+    i = skipDigits(value, i);
+    int intDigits = i - intStart;
+    boolean dot = false;
+    int fracDigits = 0;
+    if (i < length && value.charAt(i) == '.') {
+      dot = true;
+      int fracStart = ++i;
+      i = skipDigits(value, i);
+      fracDigits = i - fracStart;
+    }
+    boolean exponent = false;
+    if (i < length && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+      int expStart = i + 1;
+      if (expStart < length && (value.charAt(expStart) == '-' || value.charAt(expStart) == '+')) {
+        expStart++;
+      }
+      int expEnd = skipDigits(value, expStart);
+      if (expEnd > expStart) {
+        exponent = true;
+        i = expEnd;
+      }
+    }
+    boolean number = i == length && (intDigits > 0 || fracDigits > 0);
+
+    this.scientific = number && exponent;
+    this.missingLeadingNumeral = number && intDigits == 0;
+    if (number && (dot || exponent)) {
+      this.kind = Kind.FLOAT;
+    } else if (number) {
+      this.kind =
+          intStart == 0 && value.charAt(0) == '0' && isOctal(value, 1)
+              ? Kind.IMPLICIT_OCTAL
+              : Kind.INT;
+    } else if (value.startsWith("0o") && isOctal(value, 2)) {
+      this.kind = Kind.EXPLICIT_OCTAL;
+    } else if (".nan".equals(value) || ".NaN".equals(value) || ".NAN".equals(value)) {
+      this.kind = Kind.NAN;
+    } else if (isInf(value, intStart)) {
+      this.kind = Kind.INF;
+    } else if (TRUTHY_VALUES.contains(value)) {
+      this.kind = Kind.TRUTHY;
+    } else {
+      this.kind = Kind.OTHER;
+    }
+  }
+
+  /**
+   * Returns the classified token
+   *
+   * @return the classified token
+   */
+  public ScalarToken getToken() {
+    return token;
+  }
+
+  /**
+   * Returns the shape of the scalar value
+   *
+   * @return the kind of the value
+   */
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * Tells if the scalar is plain, i.e. neither quoted nor a block scalar
+   *
+   * @return {@code true} if the scalar is plain
+   */
+  public boolean isPlain() {
+    return token.getStyle() == DumperOptions.ScalarStyle.PLAIN;
+  }
+
+  /**
+   * Tells if the value is a number in scientific notation, e.g. {@code 1e3}
+   *
+   * @return {@code true} if the value uses the scientific notation
+   */
+  public boolean isScientific() {
+    return scientific;
+  }
+
+  /**
+   * Tells if the value is a number with no numeral before its decimal point, e.g. {@code .5}
+   *
+   * @return {@code true} if the value misses a numeral before the decimal point
+   */
+  public boolean isMissingLeadingNumeral() {
+    return missingLeadingNumeral;
+  }
+
+  /**
+   * Returns the tag that would be implicitly resolved for the value if it were plain
+   *
+   * @return the implicit tag of the value
+   */
+  public Tag getImplicitTag() {
+    if (tag == null) {
+      tag = RESOLVER.resolve(NodeId.scalar, token.getValue(), true);
+    }
+    return tag;
+  }
+
+  /**
+   * Tells if the value would not be read back unchanged if written as a plain scalar in a block
+   * mapping value (e.g. {@code key: value})
+   *
+   * @return {@code true} if the value needs quotes
+   */
+  public boolean isQuotingNeeded() {
+    if (quotesNeeded == null) {
+      String value = token.getValue();
+      quotesNeeded = value.length() <= MAX_MEMO_KEY_LENGTH ? QUOTES_NEEDED.get(value) : null;
+      if (quotesNeeded == null) {
+        quotesNeeded = !isPlainSafe(value);
+        // Only short values are likely to be repeated, and long ones would pin the file content
+        if (value.length() <= MAX_MEMO_KEY_LENGTH) {
+          if (QUOTES_NEEDED.size() >= MAX_MEMO_SIZE) {
+            QUOTES_NEEDED.clear();
+          }
+          QUOTES_NEEDED.put(value, quotesNeeded);
+        }
+      }
+    }
+    return quotesNeeded;
+  }
+
+  /**
+   * Tells if a string would be read back unchanged as a single plain scalar if written unquoted as
+   * a block mapping value (e.g. {@code key: string}). This mimics the way the YAML scanner reads
+   * plain scalars without actually scanning anything.
+   *
+   * @param string a string value
+   * @return {@code true} if the string can be written as a plain scalar, {@code false} otherwise
+   */
+  static boolean isPlainSafe(String string) {
+    int length = string.length();
+    if (length == 0) {
+      return false;
+    }
+
+    // A plain scalar cannot start with a blank or an indicator, except for '-', '?' and ':' when
+    // followed by a non-blank character
+    char first = string.charAt(0);
+    if (isBlank(first) || BREAKS.indexOf(first) != -1) {
+      return false;
+    }
+    if (INDICATORS.indexOf(first) != -1
+        && ("-?:".indexOf(first) == -1
+            || length == 1
+            || isBlank(string.charAt(1))
+            || BREAKS.indexOf(string.charAt(1)) != -1)) {
+      return false;
+    }
+
+    // Trailing blanks are stripped
+    if (isBlank(string.charAt(length - 1))) {
+      return false;
+    }
+
+    for (int i = 0; i < length; i++) {
+      char c = string.charAt(i);
+      // Line breaks fold the scalar
+      if (BREAKS.indexOf(c) != -1) {
+        return false;
+      }
+      // ': ' starts a mapping value and ' #' a comment
+      if ((c == ':' && (i == length - 1 || isBlank(string.charAt(i + 1))))
+          || (c == '#' && isBlank(string.charAt(i - 1)))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isBlank(char c) {
+    return c == ' ' || c == '\t';
+  }
+
+  private static int skipDigits(String value, int from) {
+    int i = from;
+    while (i < value.length() && value.charAt(i) >= '0' && value.charAt(i) <= '9') {
+      i++;
+    }
+    return i;
+  }
+
+  private static boolean isOctal(String value, int from) {
+    if (from >= value.length()) {
+      return false;
+    }
+    for (int i = from; i < value.length(); i++) {
+      if (value.charAt(i) < '0' || value.charAt(i) > '7') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isInf(String value, int from) {
+    return value.length() == from + 4
+        && (value.startsWith(".inf", from)
+            || value.startsWith(".Inf", from)
+            || value.startsWith(".INF", from));
+  }
+}
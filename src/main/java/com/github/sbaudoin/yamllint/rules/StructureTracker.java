@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint.rules;
+
+import java.util.Arrays;
+import org.yaml.snakeyaml.tokens.*;
+
+/**
+ * Tracker of the block and flow collections that enclose the current token. It is fed with every
+ * token of a file, in order, and tells in which kind of collection the last token is, how deep,
+ * whether it is part of a key or of a value and how many flow collections are open.
+ *
+ * <p>The state is the one after the last token: after a {@code BlockMappingStartToken} the current
+ * container is the new mapping, after a {@code BlockEndToken} it is the enclosing collection.
+ * Indentless sequences (sequences of a mapping value that are not indented) do not open a
+ * container.
+ */
+public final class StructureTracker {
+  /** Kind of collection */
+  public enum Container {
+    /** A block or flow mapping */
+    MAP,
+    /** A block or flow sequence */
+    SEQ
+  }
+
+  /** Position of the last token in its collection */
+  public enum Position {
+    /** Neither in a key nor in a value, e.g. right after the start of a collection */
+    NONE,
+    /** Part of a key, after a {@code KeyToken} */
+    KEY,
+    /** Part of a value, after a {@code ValueToken} */
+    VALUE
+  }
+
+  private static final int SEQ = 1;
+  private static final int FLOW = 2;
+
+  private int[] kinds = new int[16];
+  private int[] ids = new int[16];
+  private Position[] positions = new Position[16];
+  private int depth = 0;
+  private int lastId = 0;
+  private int flowLevel = 0;
+  private Position topPosition = Position.NONE;
+
+  /**
+   * Updates the state with the next token of the file
+   *
+   * @param token the next token
+   */
+  void update(Token token) {
+    if (token instanceof BlockMappingStartToken) {
+      push(0);
+    } else if (token instanceof FlowMappingStartToken) {
+      push(FLOW);
+      flowLevel++;
+    } else if (token instanceof BlockSequenceStartToken) {
+      push(SEQ);
+    } else if (token instanceof FlowSequenceStartToken) {
+      push(SEQ | FLOW);
+      flowLevel++;
+    } else if (token instanceof BlockEndToken) {
+      pop();
+    } else if (token instanceof FlowMappingEndToken || token instanceof FlowSequenceEndToken) {
+      pop();
+      flowLevel--;
+    } else if (token instanceof KeyToken) {
+      setPosition(Position.KEY);
+    } else if (token instanceof ValueToken) {
+      setPosition(Position.VALUE);
+    } else if (token instanceof BlockEntryToken || token instanceof FlowEntryToken) {
+      setPosition(Position.NONE);
+    }
+  }
+
+  /**
+   * Returns the number of open collections
+   *
+   * @return the depth of the current collection, 0 if out of any collection
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  /**
+   * Returns the kind of the current collection
+   *
+   * @return the kind of the current collection or {@code null} if out of any collection
+   */
+  public Container getContainer() {
+    if (depth == 0) {
+      return null;
+    }
+    return (kinds[depth - 1] & SEQ) != 0 ? Container.SEQ : Container.MAP;
+  }
+
+  /**
+   * Tells if the current collection is a flow collection
+   *
+   * @return {@code true} if the current collection is a flow one
+   */
+  public boolean isFlow() {
+    return depth > 0 && (kinds[depth - 1] & FLOW) != 0;
+  }
+
+  /**
+   * Returns an identifier of the current collection, unique in the file. It allows to tell two
+   * successive collections of the same depth apart.
+   *
+   * @return the identifier of the current collection, 0 if out of any collection
+   */
+  public int getContainerId() {
+    return depth == 0 ? 0 : ids[depth - 1];
+  }
+
+  /**
+   * Returns the position of the last token in the current collection
+   *
+   * @return the position of the last token
+   */
+  public Position getPosition() {
+    return depth == 0 ? topPosition : positions[depth - 1];
+  }
+
+  /**
+   * Returns the number of open flow collections
+   *
+   * @return the flow level, 0 if out of any flow collection
+   */
+  public int getFlowLevel() {
+    return flowLevel;
+  }
+
+  private void push(int kind) {
+    if (depth == kinds.length) {
+      kinds = Arrays.copyOf(kinds, depth * 2);
+      ids = Arrays.copyOf(ids, depth * 2);
+      positions = Arrays.copyOf(positions, depth * 2);
+    }
+    kinds[depth] = kind;
+    ids[depth] = ++lastId;
+    positions[depth] = Position.NONE;
+    depth++;
+  }
+
+  private void pop() {
+    if (depth > 0) {
+      depth--;
+    }
+  }
+
+  private void setPosition(Position position) {
+    if (depth == 0) {
+      topPosition = position;
+    } else {
+      positions[depth - 1] = position;
+    }
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint.rules;
+
+import org.yaml.snakeyaml.tokens.ScalarToken;
+import org.yaml.snakeyaml.tokens.Token;
+
+/**
+ * Analysis of the tokens of a file, shared by all the token rules. The linter creates one instance
+ * per file and makes it available to the rules through their context map (under {@link
+ * #CONTEXT_KEY}) so that what several rules need to know about a token is computed only once,
+ * whatever the number of enabled rules.
+ */
+public final class TokenAnalysis {
+  /** Key of the shared analysis in the context map of the token rules */
+  public static final String CONTEXT_KEY = "token_analysis";
+  /** Spacing returned when two tokens are not on the same line */
+  public static final int NOT_SAME_LINE = Integer.MIN_VALUE;
+
+  /** Spacing not computed yet */
+  private static final int UNKNOWN = Integer.MAX_VALUE;
+
+  private final StructureTracker structure = new StructureTracker();
+  private Token token;
+  private ScalarInfo scalarInfo;
+  private Token spacingToken;
+  private int spacesBefore = UNKNOWN;
+  private int spacesAfter = UNKNOWN;
+
+  /**
+   * Updates the analysis with the next token of the file. Calling it again with the same token has
+   * no effect.
+   *
+   * @param token the next token
+   */
+  public void update(Token token) {
+    if (token != this.token) {
+      this.token = token;
+      structure.update(token);
+    }
+  }
+
+  /**
+   * Returns the structure (enclosing collections) of the last token passed to {@link
+   * #update(Token)}
+   *
+   * @return the structure tracker
+   */
+  public StructureTracker getStructure() {
+    return structure;
+  }
+
+  /**
+   * Returns the classification of a scalar. The classification of the last classified scalar is
+   * kept so that all the rules checking the same token share it.
+   *
+   * @param token a scalar token
+   * @return the classification of the scalar
+   */
+  public ScalarInfo getScalarInfo(ScalarToken token) {
+    if (scalarInfo == null || scalarInfo.getToken() != token) {
+      scalarInfo = new ScalarInfo(token);
+    }
+    return scalarInfo;
+  }
+
+  /**
+   * Returns the number of spaces between a token and the previous one. The result for the last
+   * token is kept so that all the rules checking the same token share it.
+   *
+   * @param token a token
+   * @param prev the previous token, may be {@code null}
+   * @return the number of spaces or {@link #NOT_SAME_LINE} if there is no previous token on the
+   *     same line
+   */
+  public int getSpacesBefore(Token token, Token prev) {
+    resetSpacing(token);
+    if (spacesBefore == UNKNOWN) {
+      spacesBefore = countSpacesBefore(token, prev);
+    }
+    return spacesBefore;
+  }
+
+  /**
+   * Returns the number of spaces between a token and the next one. The result for the last token is
+   * kept so that all the rules checking the same token share it.
+   *
+   * @param token a token
+   * @param next the next token, may be {@code null}
+   * @return the number of spaces or {@link #NOT_SAME_LINE} if there is no next token on the same
+   *     line
+   */
+  public int getSpacesAfter(Token token, Token next) {
+    resetSpacing(token);
+    if (spacesAfter == UNKNOWN) {
+      spacesAfter = countSpacesAfter(token, next);
+    }
+    return spacesAfter;
+  }
+
+  /**
+   * Counts the number of spaces between a token and the previous one
+   *
+   * @param token a token
+   * @param prev the previous token, may be {@code null}
+   * @return the number of spaces or {@link #NOT_SAME_LINE} if there is no previous token on the
+   *     same line
+   */
+  static int countSpacesBefore(Token token, Token prev) {
+    if (prev != null
+        && prev.getEndMark().getLine() == token.getStartMark().getLine()
+        &&
+        // Discard tokens (only scalars ?) that end at the start of next line
+        (prev.getEndMark().getPointer() == 0
+            || prev.getEndMark().getBuffer()[prev.getEndMark().getPointer() - 1] != '\n')) {
+      return token.getStartMark().getPointer() - prev.getEndMark().getPointer();
+    }
+    return NOT_SAME_LINE;
+  }
+
+  /**
+   * Counts the number of spaces between a token and the next one
+   *
+   * @param token a token
+   * @param next the next token, may be {@code null}
+   * @return the number of spaces or {@link #NOT_SAME_LINE} if there is no next token on the same
+   *     line
+   */
+  static int countSpacesAfter(Token token, Token next) {
+    if (next != null && token.getEndMark().getLine() == next.getStartMark().getLine()) {
+      return next.getStartMark().getIndex() - token.getEndMark().getIndex();
+    }
+    return NOT_SAME_LINE;
+  }
+
+  private void resetSpacing(Token token) {
+    if (token != spacingToken) {
+      spacingToken = token;
+      spacesBefore = UNKNOWN;
+      spacesAfter = UNKNOWN;
+    }
+  }
+}
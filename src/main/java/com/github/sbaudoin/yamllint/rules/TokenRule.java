@@ -18,6 +18,7 @@ package com.github.sbaudoin.yamllint.rules;
 import com.github.sbaudoin.yamllint.LintProblem;
 import java.util.List;
 import java.util.Map;
+import org.yaml.snakeyaml.tokens.ScalarToken;
 import org.yaml.snakeyaml.tokens.Token;
 
 /** Class that represents a token-oriented rule */
@@ -42,6 +43,96 @@ public abstract class TokenRule extends Rule {
       Token nextnext,
       Map<String, Object> context);
 
+  /**
+   * Returns the token analysis updated with the passed token. When the rule is run by the linter,
+   * the analysis is shared with the other rules and already up to date. Otherwise the rule gets its
+   * own analysis, which requires this method to be called for every token.
+   *
+   * @param token the token being checked
+   * @param context the context map of the rule
+   * @return the token analysis of the file
+   */
+  protected TokenAnalysis getTokenAnalysis(Token token, Map<String, Object> context) {
+    TokenAnalysis analysis =
+        (TokenAnalysis)
+            context.computeIfAbsent(TokenAnalysis.CONTEXT_KEY, k -> new TokenAnalysis());
+    analysis.update(token);
+    return analysis;
+  }
+
+  /**
+   * Returns the classification of a scalar. When the rule is run by the linter, the classification
+   * is shared with the other rules and computed only once per scalar.
+   *
+   * @param token a scalar token
+   * @param context the context map of the rule
+   * @return the classification of the scalar
+   */
+  protected ScalarInfo getScalarInfo(ScalarToken token, Map<String, Object> context) {
+    if (context.get(TokenAnalysis.CONTEXT_KEY) instanceof TokenAnalysis analysis) {
+      return analysis.getScalarInfo(token);
+    }
+    return new ScalarInfo(token);
+  }
+
+  /**
+   * Same as {@link #spacesAfter(Token, Token, Integer, Integer, String, String)} but the number of
+   * spaces after the token is shared with the other rules checking the same token
+   *
+   * @param token the token to analyse
+   * @param next the next token with which the spaces are counted
+   * @param min the minimum number or expected spaces, -1 if no minimum required
+   * @param max the maximum number or expected spaces, -1 if no maximum required
+   * @param minDesc the problem description in case the number of spaces is less than <var>min</var>
+   * @param maxDesc the problem description in case the number of spaces is greater than
+   *     <var>max</var>
+   * @param context the context map of the rule
+   * @return a problem or <code>null</code> if no problem found
+   */
+  protected LintProblem spacesAfter(
+      Token token,
+      Token next,
+      int min,
+      int max,
+      String minDesc,
+      String maxDesc,
+      Map<String, Object> context) {
+    int spaces =
+        context.get(TokenAnalysis.CONTEXT_KEY) instanceof TokenAnalysis analysis
+            ? analysis.getSpacesAfter(token, next)
+            : TokenAnalysis.countSpacesAfter(token, next);
+    return getSpacesAfterProblem(spaces, token, next, min, max, minDesc, maxDesc);
+  }
+
+  /**
+   * Same as {@link #spacesBefore(Token, Token, Integer, Integer, String, String)} but the number of
+   * spaces before the token is shared with the other rules checking the same token
+   *
+   * @param token the token to analyse
+   * @param prev the previous token with which the spaces are counted
+   * @param min the minimum number or expected spaces, -1 if no minimum required
+   * @param max the maximum number or expected spaces, -1 if no maximum required
+   * @param minDesc the problem description in case the number of spaces is less than <var>min</var>
+   * @param maxDesc the problem description in case the number of spaces is greater than
+   *     <var>max</var>
+   * @param context the context map of the rule
+   * @return a problem or <code>null</code> if no problem found
+   */
+  protected LintProblem spacesBefore(
+      Token token,
+      Token prev,
+      int min,
+      int max,
+      String minDesc,
+      String maxDesc,
+      Map<String, Object> context) {
+    int spaces =
+        context.get(TokenAnalysis.CONTEXT_KEY) instanceof TokenAnalysis analysis
+            ? analysis.getSpacesBefore(token, prev)
+            : TokenAnalysis.countSpacesBefore(token, prev);
+    return getSpacesBeforeProblem(spaces, token, min, max, minDesc, maxDesc);
+  }
+
   @Override
   public TYPE getType() {
     return TYPE.TOKEN;
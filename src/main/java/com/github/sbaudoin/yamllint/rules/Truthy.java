@@ -20,8 +20,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.tokens.KeyToken;
 import org.yaml.snakeyaml.tokens.ScalarToken;
 import org.yaml.snakeyaml.tokens.TagToken;
@@ -129,10 +127,7 @@ import org.yaml.snakeyaml.tokens.Token;
  * </pre>
  */
 public class Truthy extends TokenRule {
-  private static final List<String> TRUTHY_TOKENS =
-      Arrays.asList(
-          "YES", "Yes", "yes", "NO", "No", "no", "TRUE", "True", "true", "FALSE", "False", "false",
-          "ON", "On", "on", "OFF", "Off", "off");
+  private static final List<String> TRUTHY_TOKENS = ScalarInfo.TRUTHY_VALUES;
 
   /** Name of the "allowed-values" option */
   public static final String OPTION_ALLOWED_VALUES = "allowed-values";
@@ -167,12 +162,10 @@ public class Truthy extends TokenRule {
     }
 
     if (token instanceof ScalarToken scalarToken) {
-      List<?> forbiddenTokens =
-          TRUTHY_TOKENS.stream()
-              .filter(i -> !((List<?>) conf.get(OPTION_ALLOWED_VALUES)).contains(i))
-              .collect(Collectors.toList());
-      if (forbiddenTokens.stream().anyMatch(truthy -> truthy.equals(scalarToken.getValue()))
-          && scalarToken.getStyle() == DumperOptions.ScalarStyle.PLAIN) {
+      ScalarInfo info = getScalarInfo(scalarToken, context);
+      if (info.getKind() == ScalarInfo.Kind.TRUTHY
+          && info.isPlain()
+          && !((List<?>) conf.get(OPTION_ALLOWED_VALUES)).contains(scalarToken.getValue())) {
         problems.add(
             new LintProblem(
                 token.getStartMark().getLine() + 1,
@@ -19,15 +19,27 @@ import static com.github.stefanbirkner.systemlambda.SystemLambda.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import javax.xml.parsers.DocumentBuilderFactory;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.yaml.snakeyaml.Yaml;
 
 class CliTest {
   @Test
@@ -187,6 +199,90 @@ class CliTest {
     assertThat(std.toString()).isEqualTo("");
   }
 
+  @Test
+  void failFast() throws Exception {
+    String path1 =
+        "src"
+            + File.separator
+            + "test"
+            + File.separator
+            + "resources"
+            + File.separator
+            + "cli1.yml";
+    String path2 =
+        "src"
+            + File.separator
+            + "test"
+            + File.separator
+            + "resources"
+            + File.separator
+            + "cli5.yml";
+
+    Cli cli = new Cli();
+
+    ByteArrayOutputStream std = new ByteArrayOutputStream();
+    cli.setStdOutputStream(std);
+
+    int statusCode =
+        catchSystemExit(
+            () -> cli.run(new String[] {"--fail-fast", "-f", "parsable", path1, path2}));
+    assertThat(statusCode).isEqualTo(1);
+    assertThat(new HashSet<>(Arrays.asList(std.toString().trim().split(System.lineSeparator()))))
+        .isEqualTo(
+            new HashSet<>(
+                Arrays.asList(
+                    path1 + ":2:8:comments:warning:too few spaces before comment",
+                    path1 + ":3:16::error:syntax error: mapping values are not allowed here")));
+
+    // Warnings do not stop the analysis
+    std.reset();
+    statusCode =
+        catchSystemExit(
+            () ->
+                cli.run(
+                    new String[] {"--fail-fast", "-d", "relaxed", "-f", "parsable", path2, path1}));
+    assertThat(statusCode).isEqualTo(1);
+    assertThat(std.toString()).contains(path2 + ":3:3:hyphens:warning").contains(path1);
+  }
+
+  @Test
+  void maxProblemsPerFile() throws Exception {
+    String path =
+        "src"
+            + File.separator
+            + "test"
+            + File.separator
+            + "resources"
+            + File.separator
+            + "cli1.yml";
+
+    Cli cli = new Cli();
+
+    ByteArrayOutputStream std = new ByteArrayOutputStream();
+    cli.setStdOutputStream(std);
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+    cli.setErrOutputStream(err);
+
+    int statusCode =
+        catchSystemExit(
+            () -> cli.run(new String[] {"-f", "parsable", "--max-problems-per-file", "1", path}));
+    assertThat(statusCode).isEqualTo(1);
+    assertThat(new HashSet<>(Arrays.asList(std.toString().trim().split(System.lineSeparator()))))
+        .isEqualTo(
+            new HashSet<>(
+                Arrays.asList(
+                    path + ":2:8:comments:warning:too few spaces before comment",
+                    path + ":3:16::error:syntax error: mapping values are not allowed here")));
+
+    std.reset();
+    statusCode =
+        catchSystemExit(() -> cli.run(new String[] {"--max-problems-per-file", "foo", path}));
+    assertThat(statusCode).isEqualTo(1);
+    assertThat(std.toString()).isEqualTo("");
+    assertThat(err.toString())
+        .startsWith("Error: option `max-problems-per-file' must be a positive integer or 0");
+  }
+
   @Test
   void wrongConfiguration() throws Exception {
     Cli cli = new Cli();
@@ -212,6 +308,8 @@ class CliTest {
     int statusCode = catchSystemExit(() -> cli.run(new String[] {"-h"}));
     assertThat(statusCode).isEqualTo(0);
     assertThat(std.toString().contains("A linter for YAML files")).isTrue();
+    assertThat(std.toString().replaceAll("\\s+", " "))
+        .contains("[--files-from <file> [-0]]", "[FILE_OR_DIR ...]");
     assertThat(err.toString()).isEqualTo("");
   }
 
@@ -413,6 +511,231 @@ class CliTest {
         new HashSet<>(Arrays.asList(std.toString().trim().split(System.lineSeparator()))));
   }
 
+  @Test
+  void jsonLinesFormat() throws Exception {
+    String path = "src" + File.separator + "test" + File.separator + "resources/cli1.yml";
+
+    Cli cli = new Cli();
+
+    ByteArrayOutputStream std = new ByteArrayOutputStream();
+    cli.setStdOutputStream(std);
+
+    int statusCode = catchSystemExit(() -> cli.run(new String[] {"-f", "jsonl", path}));
+    assertThat(statusCode).isEqualTo(1);
+    String file = path.replace("\\", "\\\\");
+    assertThat(std.toString().split("\n"))
+        .containsExactlyInAnyOrder(
+            "{\"file\":\""
+                + file
+                + "\",\"line\":2,\"column\":8,\"level\":\"warning\",\"rule\":\"comments\","
+                + "\"message\":\"too few spaces before comment\"}",
+            "{\"file\":\""
+                + file
+                + "\",\"line\":3,\"column\":16,\"level\":\"error\",\"rule\":null,"
+                + "\"message\":\"syntax error: mapping values are not allowed here\"}");
+  }
+
+  @Test
+  void checkstyleFormat(@TempDir Path dir) throws Exception {
+    String path = "src" + File.separator + "test" + File.separator + "resources/cli1.yml";
+
+    Cli cli = new Cli();
+
+    ByteArrayOutputStream std = new ByteArrayOutputStream();
+    cli.setStdOutputStream(std);
+
+    int statusCode = catchSystemExit(() -> cli.run(new String[] {"-f", "checkstyle", path}));
+    assertThat(statusCode).isEqualTo(1);
+    Document doc =
+        DocumentBuilderFactory.newInstance()
+            .newDocumentBuilder()
+            .parse(new ByteArrayInputStream(std.toByteArray()));
+    Element root = doc.getDocumentElement();
+    assertThat(root.getTagName()).isEqualTo("checkstyle");
+    assertThat(root.getAttribute("version")).isEqualTo("4.3");
+    NodeList files = root.getElementsByTagName("file");
+    assertThat(files.getLength()).isEqualTo(1);
+    assertThat(((Element) files.item(0)).getAttribute("name")).isEqualTo(path);
+    NodeList errors = root.getElementsByTagName("error");
+    assertThat(errors.getLength()).isEqualTo(2);
+    Element error = (Element) errors.item(0);
+    assertThat(error.getAttribute("line")).isEqualTo("2");
+    assertThat(error.getAttribute("column")).isEqualTo("8");
+    assertThat(error.getAttribute("severity")).isEqualTo("warning");
+    assertThat(error.getAttribute("message")).isEqualTo("too few spaces before comment");
+    assertThat(error.getAttribute("source")).isEqualTo("yamllint.comments");
+    assertThat(((Element) errors.item(1)).getAttribute("source")).isEqualTo("yamllint");
+
+    // Non-ASCII messages are encoded as declared whatever the default charset
+    std.reset();
+    Path accented =
+        Files.writeString(
+            dir.resolve("accented.yml"),
+            "---\n\u00e9t\u00e9: 1\n\u00e9t\u00e9: 2\n",
+            StandardCharsets.UTF_8);
+    statusCode =
+        catchSystemExit(() -> cli.run(new String[] {"-f", "checkstyle", accented.toString()}));
+    assertThat(statusCode).isEqualTo(1);
+    assertThat(new String(std.toByteArray(), StandardCharsets.UTF_8))
+        .startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+    doc =
+        DocumentBuilderFactory.newInstance()
+            .newDocumentBuilder()
+            .parse(new ByteArrayInputStream(std.toByteArray()));
+    assertThat(((Element) doc.getElementsByTagName("error").item(0)).getAttribute("message"))
+        .isEqualTo("duplication of key '\u00e9t\u00e9' in mapping");
+
+    // Empty but valid report if no problem
+    std.reset();
+    Path clean = Files.writeString(dir.resolve("clean.yml"), "---\nkey: value\n");
+    statusCode =
+        catchSystemExit(() -> cli.run(new String[] {"-f", "checkstyle", clean.toString()}));
+    assertThat(statusCode).isEqualTo(0);
+    root =
+        DocumentBuilderFactory.newInstance()
+            .newDocumentBuilder()
+            .parse(new ByteArrayInputStream(std.toByteArray()))
+            .getDocumentElement();
+    assertThat(root.getTagName()).isEqualTo("checkstyle");
+    assertThat(root.getElementsByTagName("file").getLength()).isZero();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void sarifFormat() throws Exception {
+    String path = "src" + File.separator + "test" + File.separator + "resources/cli1.yml";
+
+    Cli cli = new Cli();
+
+    ByteArrayOutputStream std = new ByteArrayOutputStream();
+    cli.setStdOutputStream(std);
+
+    int statusCode = catchSystemExit(() -> cli.run(new String[] {"-f", "sarif", path}));
+    assertThat(statusCode).isEqualTo(1);
+    // JSON is YAML
+    Map<String, Object> sarif = new Yaml().load(std.toString());
+    assertThat(sarif).containsEntry("version", "2.1.0");
+    List<Map<String, Object>> runs = (List<Map<String, Object>>) sarif.get("runs");
+    assertThat(runs).hasSize(1);
+    Map<String, Object> driver =
+        (Map<String, Object>) ((Map<String, Object>) runs.get(0).get("tool")).get("driver");
+    assertThat(driver).containsEntry("name", "yamllint");
+    List<Map<String, Object>> rules = (List<Map<String, Object>>) driver.get("rules");
+    List<Object> ruleIds = rules.stream().map(rule -> rule.get("id")).toList();
+    assertThat(ruleIds).contains("comments", "line-length").doesNotHaveDuplicates();
+    assertThat(rules.get(ruleIds.indexOf("comments")))
+        .containsEntry("defaultConfiguration", Map.of("level", "warning"));
+
+    List<Map<String, Object>> results = (List<Map<String, Object>>) runs.get(0).get("results");
+    assertThat(results).hasSize(2);
+    Map<String, Object> result =
+        results.stream().filter(r -> r.containsKey("ruleId")).findFirst().orElseThrow();
+    assertThat(result)
+        .containsEntry("ruleId", "comments")
+        .containsEntry("ruleIndex", ruleIds.indexOf("comments"))
+        .containsEntry("level", "warning")
+        .containsEntry("message", Map.of("text", "too few spaces before comment"));
+    Map<String, Object> location =
+        (Map<String, Object>)
+            ((List<Map<String, Object>>) result.get("locations")).get(0).get("physicalLocation");
+    assertThat(location)
+        .containsEntry("artifactLocation", Map.of("uri", "src/test/resources/cli1.yml"))
+        .containsEntry("region", Map.of("startLine", 2, "startColumn", 8));
+  }
+
+  @Test
+  void summary() throws Exception {
+    String path = "src" + File.separator + "test" + File.separator + "resources/cli1.yml";
+
+    Cli cli = new Cli();
+
+    ByteArrayOutputStream std = new ByteArrayOutputStream();
+    cli.setStdOutputStream(std);
+
+    int statusCode = catchSystemExit(() -> cli.run(new String[] {"--summary", path}));
+    assertThat(statusCode).isEqualTo(1);
+    String nl = System.lineSeparator();
+    assertThat(std.toString())
+        .isEqualTo(
+            "2 problem(s) in 1 of 1 file(s)"
+                + nl
+                + nl
+                + "Problems per level:"
+                + nl
+                + "  1  error"
+                + nl
+                + "  1  warning"
+                + nl
+                + nl
+                + "Problems per rule:"
+                + nl
+                + "  1  (none)"
+                + nl
+                + "  1  comments"
+                + nl
+                + nl
+                + "Top files:"
+                + nl
+                + "  2  "
+                + path
+                + nl
+                + nl
+                + "Top directories:"
+                + nl
+                + "  2  "
+                + new File(path).getParent()
+                + nl);
+  }
+
+  @Test
+  void summaryThenReport() throws Exception {
+    String path = "src" + File.separator + "test" + File.separator + "resources/cli1.yml";
+
+    // Same instance for both runs
+    Cli cli = new Cli();
+
+    ByteArrayOutputStream std = new ByteArrayOutputStream();
+    cli.setStdOutputStream(std);
+
+    int statusCode = catchSystemExit(() -> cli.run(new String[] {"--summary", path}));
+    assertThat(statusCode).isEqualTo(1);
+    assertThat(std.toString()).startsWith("2 problem(s) in 1 of 1 file(s)");
+
+    std.reset();
+    statusCode = catchSystemExit(() -> cli.run(new String[] {"-f", "parsable", path}));
+    assertThat(statusCode).isEqualTo(1);
+    assertThat(std.toString().trim().split(System.lineSeparator()))
+        .containsExactlyInAnyOrder(
+            path + ":2:8:comments:warning:too few spaces before comment",
+            path + ":3:16::error:syntax error: mapping values are not allowed here");
+
+    std.reset();
+    statusCode = catchSystemExit(() -> cli.run(new String[] {"--summary", path}));
+    assertThat(statusCode).isEqualTo(1);
+    assertThat(std.toString()).startsWith("2 problem(s) in 1 of 1 file(s)");
+  }
+
+  @Test
+  void outputFailure() throws Exception {
+    String path = "src" + File.separator + "test" + File.separator + "resources/cli1.yml";
+
+    Cli cli = new Cli();
+
+    cli.setStdOutputStream(
+        new OutputStream() {
+          @Override
+          public void write(int b) throws IOException {
+            throw new IOException("broken pipe");
+          }
+        });
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+    cli.setErrOutputStream(err);
+
+    int statusCode = catchSystemExit(() -> cli.run(new String[] {"-f", "parsable", path}));
+    assertThat(statusCode).isEqualTo(1);
+    assertThat(err.toString()).startsWith("java.io.IOException: broken pipe").contains("at ");
+  }
+
   @Test
   void coloredOutput() throws Exception {
     String path =
@@ -695,4 +1018,174 @@ class CliTest {
             new HashSet<>(
                 Arrays.asList(path + "cli2.yml", path + "sub" + File.separator + "cli3.yaml")));
   }
+
+  @Test
+  void filesFrom(@TempDir Path dir) throws Exception {
+    Path yaml1 = Files.writeString(dir.resolve("file1.yaml"), "---\nkey: value\n");
+    Path yaml2 = Files.writeString(dir.resolve("file 2.yml"), "---\nkey:  value\n");
+    Path text = Files.writeString(dir.resolve("file3.txt"), "not: yaml:\n");
+    Path missing = dir.resolve("missing.yaml");
+    Path list =
+        Files.writeString(
+            dir.resolve("list"), yaml1 + "\r\n\n" + text + "\n" + yaml2 + "\n" + missing + "\n");
+    Path nulList = Files.writeString(dir.resolve("list0"), yaml1 + "\0" + yaml2 + "\0");
+
+    Cli cli = new Cli();
+
+    ByteArrayOutputStream std = new ByteArrayOutputStream();
+    cli.setStdOutputStream(std);
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+    cli.setErrOutputStream(err);
+
+    // Listed files only, not searched for in directories
+    int statusCode =
+        catchSystemExit(
+            () ->
+                cli.run(new String[] {"--list-files", "--files-from", list.toString(), "-j", "1"}));
+    assertThat(statusCode).isEqualTo(0);
+    assertThat(std.toString().split(System.lineSeparator()))
+        .containsExactly(yaml1.toString(), yaml2.toString(), missing.toString());
+
+    std.reset();
+    statusCode =
+        catchSystemExit(
+            () -> cli.run(new String[] {"-f", "parsable", "--files-from", list.toString()}));
+    assertThat(statusCode).isEqualTo(1);
+    assertThat(std.toString())
+        .isEqualTo(
+            yaml2 + ":2:6:colons:error:too many spaces after colon" + System.lineSeparator());
+    assertThat(err.toString()).contains("Cannot read file `" + missing + "', skipping");
+
+    // NUL-separated list
+    std.reset();
+    statusCode =
+        catchSystemExit(
+            () -> cli.run(new String[] {"--list-files", "-0", "--files-from", nulList.toString()}));
+    assertThat(statusCode).isEqualTo(0);
+    assertThat(std.toString().split(System.lineSeparator()))
+        .containsExactly(yaml1.toString(), yaml2.toString());
+
+    // List read from the standard input, after the files passed as arguments
+    std.reset();
+    withTextFromSystemIn(yaml2.toString())
+        .execute(
+            () -> {
+              int status =
+                  catchSystemExit(
+                      () ->
+                          cli.run(
+                              new String[] {
+                                "--list-files", "--files-from", "-", yaml1.toString()
+                              }));
+              assertThat(status).isEqualTo(0);
+            });
+    assertThat(std.toString().split(System.lineSeparator()))
+        .containsExactly(yaml1.toString(), yaml2.toString());
+
+    // Errors
+    err.reset();
+    statusCode = catchSystemExit(() -> cli.run(new String[] {"--files-from", "-", "-"}));
+    assertThat(statusCode).isEqualTo(1);
+    assertThat(err.toString())
+        .contains("standard input cannot be both linted and read with --files-from");
+    err.reset();
+    statusCode = catchSystemExit(() -> cli.run(new String[] {"--files-from", missing.toString()}));
+    assertThat(statusCode).isEqualTo(1);
+    assertThat(err.toString()).contains("cannot find file list `" + missing + "'");
+  }
+
+  @Test
+  void listFilesPrunedAndDeduplicated(@TempDir Path dir) throws Exception {
+    Files.createDirectories(dir.resolve("sub"));
+    Files.createDirectories(dir.resolve("vendor"));
+    Files.writeString(dir.resolve("a.yaml"), "---\n");
+    Files.writeString(dir.resolve("sub").resolve("b.yml"), "---\n");
+    Files.writeString(dir.resolve("vendor").resolve("c.yaml"), "---\n");
+    Files.createSymbolicLink(dir.resolve("link"), dir.resolve("sub"));
+
+    Cli cli = new Cli();
+
+    ByteArrayOutputStream std = new ByteArrayOutputStream();
+    cli.setStdOutputStream(std);
+
+    int statusCode =
+        catchSystemExit(
+            () ->
+                cli.run(
+                    new String[] {
+                      "--list-files",
+                      "-d",
+                      "{pattern-syntax: gitignore, ignore: 'vendor/'}",
+                      dir.toString(),
+                      dir.resolve("a.yaml").toString()
+                    }));
+    assertThat(statusCode).isEqualTo(0);
+    String[] files = std.toString().trim().split(System.lineSeparator());
+    assertThat(files).hasSize(2).contains(dir.resolve("a.yaml").toString());
+    assertThat(files)
+        .containsAnyOf(
+            dir.resolve("sub").resolve("b.yml").toString(),
+            dir.resolve("link").resolve("b.yml").toString());
+  }
+
+  @Test
+  void jobs(@TempDir Path dir) throws Exception {
+    for (int i = 0; i < 60; i++) {
+      Path sub = Files.createDirectories(dir.resolve("dir" + (i % 7)));
+      Files.writeString(
+          sub.resolve("file" + i + ".yaml"),
+          (i % 3 == 0) ? "key: value  \n" : ((i % 5 == 0) ? "- a\n-  b\n" : "---\nkey: value\n"));
+    }
+
+    for (String[] options :
+        new String[][] {
+          {"-f", "parsable"}, {"-f", "standard"}, {"-f", "standard", "--fail-fast"}
+        }) {
+      String[] sequential = new String[] {"-j", "1", dir.toString()};
+      String[] parallel = new String[] {"--jobs", "8", dir.toString()};
+      ByteArrayOutputStream expected = new ByteArrayOutputStream();
+      int expectedStatus = runCli(expected, options, sequential);
+      ByteArrayOutputStream actual = new ByteArrayOutputStream();
+      int actualStatus = runCli(actual, options, parallel);
+      assertThat(actualStatus).isEqualTo(expectedStatus).isEqualTo(1);
+      assertThat(actual.toString()).isNotEmpty().isEqualTo(expected.toString());
+    }
+
+    Cli cli = new Cli();
+    ByteArrayOutputStream err = new ByteArrayOutputStream();
+    cli.setErrOutputStream(err);
+    int statusCode = catchSystemExit(() -> cli.run(new String[] {"-j", "0", dir.toString()}));
+    assertThat(statusCode).isEqualTo(1);
+    assertThat(err.toString()).contains("option `jobs' must be a strictly positive integer");
+
+    Cli cli2 = new Cli();
+    cli2.setStdOutputStream(new ByteArrayOutputStream());
+    ByteArrayOutputStream err2 = new ByteArrayOutputStream();
+    cli2.setErrOutputStream(err2);
+    statusCode =
+        catchSystemExit(
+            () ->
+                cli2.run(
+                    new String[] {
+                      "-j", "2", "--read-jobs", "3", "--pipeline-stats", dir.toString()
+                    }));
+    assertThat(statusCode).isEqualTo(1);
+    assertThat(err2.toString().split(System.lineSeparator()))
+        .hasSize(4)
+        .anyMatch(line -> line.startsWith("read: 3 thread(s), 60 file(s)"))
+        .anyMatch(line -> line.startsWith("lint: 2 thread(s), 60 file(s)"))
+        // The results waiting to be output are bounded by the pipeline window (8 x jobs)
+        .anyMatch(
+            line ->
+                line.startsWith("write: 1 thread(s), 60 file(s)")
+                    && Integer.parseInt(line.replaceAll(".*queue max (\\d+).*", "$1")) <= 16);
+  }
+
+  private int runCli(ByteArrayOutputStream std, String[] options, String[] args) throws Exception {
+    String[] allArgs = Arrays.copyOf(options, options.length + args.length);
+    System.arraycopy(args, 0, allArgs, options.length, args.length);
+    Cli cli = new Cli();
+    cli.setStdOutputStream(std);
+    return catchSystemExit(() -> cli.run(allArgs));
+  }
 }
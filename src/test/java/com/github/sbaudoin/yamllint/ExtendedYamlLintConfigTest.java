@@ -65,6 +65,34 @@ class ExtendedYamlLintConfigTest {
     }
   }
 
+  @Test
+  void extendRegexpOptions() throws Exception {
+    YamlLintConfig oldConf =
+        new YamlLintConfig(
+            """
+                 rules:
+                   quoted-strings:
+                     required: false
+                     extra-required: [^http://]
+                 """);
+    YamlLintConfig newConf =
+        new YamlLintConfig(
+            """
+                rules:
+                  quoted-strings:
+                    required: false
+                    extra-required: [^ftp://]
+                """);
+    assertThat(Linter.run("- http://localhost\n", oldConf)).hasSize(1);
+    assertThat(Linter.run("- ftp://localhost\n", oldConf)).isEmpty();
+
+    newConf.extend(oldConf);
+    newConf.validate();
+
+    assertThat(Linter.run("- http://localhost\n", newConf)).isEmpty();
+    assertThat(Linter.run("- ftp://localhost\n", newConf)).hasSize(1);
+  }
+
   @Test
   @SuppressWarnings("unchecked")
   void extendAddRule() throws Exception {
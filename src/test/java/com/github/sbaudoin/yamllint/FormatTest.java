@@ -17,7 +17,9 @@ package com.github.sbaudoin.yamllint;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.StringWriter;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 
@@ -57,6 +59,22 @@ class FormatTest {
                 + System.lineSeparator());
   }
 
+  @Test
+  void formatToWriter() throws Exception {
+    LintProblem problem = new LintProblem(3, 4, "desc", "rule", "extra\ndesc");
+    problem.setLevel(Linter.WARNING_LEVEL);
+    List<LintProblem> problems = Arrays.asList(new LintProblem(1, 2, null), problem);
+    for (Format.OutputFormat format : Format.OutputFormat.values()) {
+      StringWriter writer = new StringWriter();
+      Format.format("file.yaml", problems, format, writer);
+      assertThat(writer.toString()).isEqualTo(Format.format("file.yaml", problems, format));
+
+      writer = new StringWriter();
+      Format.format("file.yaml", Collections.emptyList(), format, writer);
+      assertThat(writer.toString()).isEmpty();
+    }
+  }
+
   @Test
   void parsable() {
     LintProblem problem = new LintProblem(1, 2, null);
@@ -118,6 +136,21 @@ class FormatTest {
                 + "                     extra desc"
                 + System.lineSeparator()
                 + "                     with lines");
+
+    // Extra description lines are split as String.split does
+    String prefix = "  1:2                <no description>  (rule-id)";
+    String nl = System.lineSeparator() + "                     ";
+    problem = new LintProblem(1, 2, null, "rule-id", "a\n\nb\n\n");
+    assertThat(Format.standard(problem)).isEqualTo(prefix + nl + "a" + nl + nl + "b");
+    problem = new LintProblem(1, 2, null, "rule-id", "\n\n");
+    assertThat(Format.standard(problem)).isEqualTo(prefix);
+    problem = new LintProblem(1, 2, null, "rule-id", "");
+    assertThat(Format.standard(problem)).isEqualTo(prefix + nl);
+
+    // Long positions are not truncated
+    problem = new LintProblem(123456, 1234567, "desc");
+    problem.setLevel(Linter.ERROR_LEVEL);
+    assertThat(Format.standard(problem)).isEqualTo("  123456:1234567errordesc");
   }
 
   @Test
@@ -183,6 +216,8 @@ class FormatTest {
   @Test
   void getFiller() {
     assertThat(Format.getFiller(4)).isEqualTo("    ");
+    assertThat(Format.getFiller(0)).isEmpty();
+    assertThat(Format.getFiller(100)).hasSize(100).isBlank();
   }
 
   @Test
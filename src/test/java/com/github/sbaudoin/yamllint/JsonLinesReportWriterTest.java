@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+class JsonLinesReportWriterTest {
+  @Test
+  void write() throws IOException {
+    StringBuilder out = new StringBuilder();
+    ReportWriter writer = new JsonLinesReportWriter(out);
+    writer.start();
+    writer.write("empty.yaml", Collections.emptyList());
+    assertThat(out).isEmpty();
+
+    LintProblem problem1 = new LintProblem(1, 2, "desc", "rule-id");
+    problem1.setLevel(Linter.WARNING_LEVEL);
+    LintProblem problem2 = new LintProblem(3, 4, "\"quoted\" \\ and\ttab\u0001");
+    writer.write("dir\\my \"file\".yaml", Arrays.asList(problem1, problem2));
+    writer.end();
+    assertThat(out.toString())
+        .isEqualTo(
+            "{\"file\":\"dir\\\\my \\\"file\\\".yaml\",\"line\":1,\"column\":2,\"level\":\"warning\","
+                + "\"rule\":\"rule-id\",\"message\":\"desc\"}\n"
+                + "{\"file\":\"dir\\\\my \\\"file\\\".yaml\",\"line\":3,\"column\":4,\"level\":null,"
+                + "\"rule\":null,\"message\":\"\\\"quoted\\\" \\\\ and\\ttab\\u0001\"}\n");
+  }
+}
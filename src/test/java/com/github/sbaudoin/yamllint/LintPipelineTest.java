@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class LintPipelineTest {
+  @Test
+  void ordered() {
+    LintPipeline pipeline = new LintPipeline(3, 4, 2, 6, null);
+    AtomicInteger inFlight = new AtomicInteger(0);
+    AtomicInteger maxInFlight = new AtomicInteger(0);
+    List<String> written = new ArrayList<>();
+    pipeline.run(
+        action -> discover(200, action, inFlight, maxInFlight),
+        path -> {
+          sleepRandomly();
+          if (path.endsWith("7")) {
+            throw new IOException("unreadable");
+          }
+          return path.getBytes();
+        },
+        (path, content) -> {
+          sleepRandomly();
+          return Collections.singletonList(new LintProblem(content.length, 1, path));
+        },
+        item -> {
+          inFlight.decrementAndGet();
+          written.add(
+              item.getPath() + ":" + (item.getProblems() == null ? "unreadable" : "linted"));
+          return true;
+        });
+
+    assertThat(written).hasSize(200);
+    for (int i = 0; i < 200; i++) {
+      assertThat(written.get(i))
+          .isEqualTo("file" + i + ":" + (i % 10 == 7 ? "unreadable" : "linted"));
+    }
+    // The window, plus the file waiting for room in the pipeline
+    assertThat(maxInFlight.get()).isLessThanOrEqualTo(7);
+    List<LintPipeline.Stage> stages = pipeline.getStages();
+    assertThat(stages)
+        .extracting(LintPipeline.Stage::getName)
+        .containsExactly("discovery", "read", "lint", "write");
+    assertThat(stages).extracting(LintPipeline.Stage::getThreads).containsExactly(1, 3, 4, 1);
+    assertThat(stages).allMatch(stage -> stage.getItems() == 200);
+    assertThat(stages.get(1).getMaxQueueSize()).isBetween(1, 2);
+    assertThat(stages.get(1).toString()).startsWith("read: 3 thread(s), 200 file(s), busy ");
+  }
+
+  @Test
+  void readTaskPerFile() {
+    // A thread per task, as with virtual threads
+    LintPipeline pipeline = new LintPipeline(1, 2, 4, 8, Executors::newCachedThreadPool);
+    AtomicInteger reading = new AtomicInteger(0);
+    AtomicInteger maxReading = new AtomicInteger(0);
+    CountDownLatch concurrentReads = new CountDownLatch(4);
+    List<String> written = new ArrayList<>();
+    pipeline.run(
+        action -> discover(100, action, new AtomicInteger(), new AtomicInteger()),
+        path -> {
+          maxReading.accumulateAndGet(reading.incrementAndGet(), Math::max);
+          // The first files are only read once 4 of them are being read at the same time
+          concurrentReads.countDown();
+          try {
+            concurrentReads.await(10, TimeUnit.SECONDS);
+          } catch (InterruptedException e) {
+            throw new IOException(e);
+          }
+          sleepRandomly();
+          reading.decrementAndGet();
+          if (path.endsWith("7")) {
+            throw new IOException("unreadable");
+          }
+          return path.getBytes();
+        },
+        (path, content) -> Collections.emptyList(),
+        item -> {
+          written.add(
+              item.getPath() + ":" + (item.getProblems() == null ? "unreadable" : "linted"));
+          return true;
+        });
+
+    assertThat(written).hasSize(100);
+    for (int i = 0; i < 100; i++) {
+      assertThat(written.get(i))
+          .isEqualTo("file" + i + ":" + (i % 10 == 7 ? "unreadable" : "linted"));
+    }
+    // More files read at the same time than read jobs, but not more than the window
+    assertThat(maxReading.get()).isBetween(4, 8);
+    LintPipeline.Stage read = pipeline.getStages().get(1);
+    assertThat(read.getThreads()).isZero();
+    assertThat(read.getItems()).isEqualTo(100);
+    assertThat(read.toString()).startsWith("read: one thread per file, 100 file(s), busy ");
+  }
+
+  @Test
+  void largestFirst() {
+    CountDownLatch discovered = new CountDownLatch(1);
+    List<String> read = Collections.synchronizedList(new ArrayList<>());
+    List<String> written = new ArrayList<>();
+    new LintPipeline(1, 1, 20, 20, null)
+        .run(
+            sink -> {
+              for (int i = 0; i < 10; i++) {
+                sink.accept("file" + i, (i * 7) % 10);
+              }
+              discovered.countDown();
+            },
+            path -> {
+              if (read.isEmpty()) {
+                // Wait for all the other files to be queued
+                try {
+                  discovered.await();
+                } catch (InterruptedException e) {
+                  throw new IOException(e);
+                }
+              }
+              read.add(path);
+              return new byte[0];
+            },
+            (path, content) -> Collections.emptyList(),
+            item -> written.add(item.getPath()));
+    // Sizes: 0, 7, 4, 1, 8, 5, 2, 9, 6, 3
+    List<String> bySize =
+        new ArrayList<>(
+            List.of(
+                "file7", "file4", "file1", "file8", "file5", "file2", "file9", "file6", "file3",
+                "file0"));
+    bySize.remove(read.get(0));
+    assertThat(read.subList(1, read.size())).isEqualTo(bySize);
+    assertThat(written)
+        .containsExactly(
+            "file0", "file1", "file2", "file3", "file4", "file5", "file6", "file7", "file8",
+            "file9");
+  }
+
+  @Test
+  void stop() {
+    LintPipeline pipeline = new LintPipeline(2, 2, 4, 8, null);
+    List<String> written = new ArrayList<>();
+    pipeline.run(
+        action -> discover(1000, action, new AtomicInteger(), new AtomicInteger()),
+        String::getBytes,
+        (path, content) -> Collections.emptyList(),
+        item -> {
+          written.add(item.getPath());
+          return written.size() < 10;
+        });
+    assertThat(written).hasSize(10).endsWith("file9");
+    assertThat(pipeline.getStages().get(0).getItems()).isLessThan(1000);
+  }
+
+  @Test
+  void failures() {
+    List<String> written = new ArrayList<>();
+    assertThatThrownBy(
+            () ->
+                new LintPipeline(2, 2, 4, 8, null)
+                    .run(
+                        action -> discover(50, action, new AtomicInteger(), new AtomicInteger()),
+                        String::getBytes,
+                        (path, content) -> {
+                          if ("file20".equals(path)) {
+                            throw new IllegalStateException("lint failure");
+                          }
+                          return Collections.emptyList();
+                        },
+                        item -> written.add(item.getPath())))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessage("lint failure");
+    assertThat(written).hasSize(20);
+
+    assertThatThrownBy(
+            () ->
+                new LintPipeline(1, 1, 1, 1, null)
+                    .run(
+                        action -> {
+                          action.accept("file0", 0);
+                          throw new IllegalArgumentException("discovery failure");
+                        },
+                        String::getBytes,
+                        (path, content) -> Collections.emptyList(),
+                        item -> true))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("discovery failure");
+  }
+
+  private static void discover(
+      int count, LintPipeline.Sink action, AtomicInteger inFlight, AtomicInteger maxInFlight) {
+    for (int i = 0; i < count; i++) {
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      if (!action.accept("file" + i, i % 13)) {
+        return;
+      }
+    }
+  }
+
+  private static void sleepRandomly() {
+    try {
+      Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class LintSummaryTest {
+  @Test
+  void add() throws IOException {
+    LintSummary summary = new LintSummary(2);
+    summary.add("a" + File.separator + "f1.yaml", problems(3, "rule1", Linter.ERROR_LEVEL));
+    summary.add("a" + File.separator + "f2.yaml", problems(1, null, Linter.ERROR_LEVEL));
+    summary.add("b" + File.separator + "f3.yaml", problems(2, "rule2", Linter.WARNING_LEVEL));
+    summary.add("f4.yaml", problems(2, "rule1", Linter.WARNING_LEVEL));
+    summary.add("f5.yaml", Collections.emptyList());
+
+    assertThat(summary.getFileCount()).isEqualTo(5);
+    assertThat(summary.getFileWithProblemsCount()).isEqualTo(4);
+    assertThat(summary.getProblemCount()).isEqualTo(8);
+    assertThat(summary.getLevelCounts())
+        .containsExactly(entry(Linter.ERROR_LEVEL, 4L), entry(Linter.WARNING_LEVEL, 4L));
+    assertThat(summary.getRuleCounts())
+        .containsExactly(entry("rule1", 5L), entry("rule2", 2L), entry(LintSummary.NO_RULE, 1L));
+    assertThat(summary.getTopFiles())
+        .containsExactly(
+            entry("a" + File.separator + "f1.yaml", 3L),
+            entry("b" + File.separator + "f3.yaml", 2L));
+    assertThat(summary.getTopDirectories()).containsExactly(entry("a", 4L), entry(".", 2L));
+
+    StringBuilder out = new StringBuilder();
+    summary.write(out);
+    String nl = System.lineSeparator();
+    assertThat(out.toString())
+        .startsWith("8 problem(s) in 4 of 5 file(s)" + nl + nl + "Problems per level:" + nl)
+        .contains(nl + "Problems per rule:" + nl + "  5  rule1" + nl + "  2  rule2" + nl)
+        .contains(nl + "Top directories:" + nl + "  4  a" + nl + "  2  ." + nl);
+
+    // Nothing but the header if there is no problem
+    out.setLength(0);
+    new LintSummary(LintSummary.DEFAULT_TOP).write(out);
+    assertThat(out.toString()).isEqualTo("0 problem(s) in 0 of 0 file(s)" + nl);
+  }
+
+  @Test
+  void concurrentAdd() {
+    LintSummary summary = new LintSummary(LintSummary.DEFAULT_TOP);
+    IntStream.range(0, 10000)
+        .parallel()
+        .forEach(
+            i ->
+                summary.add(
+                    "dir" + (i % 7) + File.separator + "file" + i + ".yaml",
+                    problems(i % 5, "rule" + (i % 3), Linter.ERROR_LEVEL)));
+
+    assertThat(summary.getFileCount()).isEqualTo(10000);
+    assertThat(summary.getFileWithProblemsCount()).isEqualTo(8000);
+    assertThat(summary.getProblemCount()).isEqualTo(20000);
+    assertThat(summary.getRuleCounts().values().stream().mapToLong(Long::longValue).sum())
+        .isEqualTo(20000);
+    assertThat(summary.getTopFiles()).hasSize(LintSummary.DEFAULT_TOP).containsValue(4L);
+    assertThat(summary.getTopFiles().values()).allMatch(count -> count == 4L);
+    assertThat(summary.getTopDirectories()).hasSize(7);
+  }
+
+  private static List<LintProblem> problems(int n, String ruleId, String level) {
+    List<LintProblem> problems = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      LintProblem problem = new LintProblem(i + 1, 1, "desc", ruleId);
+      problem.setLevel(level);
+      problems.add(problem);
+    }
+    return problems;
+  }
+}
@@ -22,6 +22,7 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 
 class LinterTest {
@@ -99,6 +100,87 @@ class LinterTest {
     assertThat(Linter.run(conf, new File("foo.bar")).size()).isEqualTo(0);
   }
 
+  @Test
+  void maxProblemsPerRule() throws Exception {
+    YamlLintConfig conf =
+        new YamlLintConfig(
+            """
+                extends: default
+                max-problems-per-rule: 2
+                """);
+    List<LintProblem> problems = Linter.run("---\na: 1 \nb: 2 \nc: 3 \nd: 4 \nkey: [ 1]\n", conf);
+    assertThat(problems.stream().map(LintProblem::toString))
+        .containsExactly(
+            "2:5:trailing spaces (trailing-spaces)",
+            "3:5:trailing spaces (trailing-spaces)",
+            "4:5:too many problems (more than 2), further ones are not reported (trailing-spaces)",
+            "6:7:too many spaces inside brackets (brackets)");
+  }
+
+  @Test
+  void maxProblemsPerFile() throws Exception {
+    YamlLintConfig conf = getFakeConfig();
+    conf.setMaxProblemsPerFile(2);
+    List<LintProblem> problems =
+        Linter.run("---\na: 1 \nb: 2 \nc: 3 \nd: 4 \nkey: [ 1]\ninvalid: yaml: here\n", conf);
+    assertThat(problems.stream().map(LintProblem::toString))
+        .containsExactly(
+            "2:5:trailing spaces (trailing-spaces)",
+            "3:5:trailing spaces (trailing-spaces)",
+            "4:5:too many problems in file (more than 2), the rest of the file is not checked");
+    assertThat(problems.get(2).getLevel()).isEqualTo(Linter.ERROR_LEVEL);
+
+    // Syntax errors are still reported if the maximum is not exceeded
+    conf.setMaxProblemsPerFile(5);
+    assertThat(Linter.run("---\na: 1 \ninvalid: yaml: here\n", conf).size()).isEqualTo(2);
+  }
+
+  @Test
+  void maxTokens() throws Exception {
+    YamlLintConfig conf = getFakeConfig();
+    conf.setMaxTokens(10);
+    List<LintProblem> problems = Linter.run("---\na: 1\nb: 2\nc: 3\nd: 4\ne: [5, 6]\n", conf);
+    assertThat(problems.size()).isEqualTo(1);
+    assertThat(problems.get(0).getDesc())
+        .isEqualTo("too many tokens (more than 10), the rest of the file is not checked");
+    assertThat(problems.get(0).getLevel()).isEqualTo(Linter.ERROR_LEVEL);
+
+    conf.setMaxTokens(100);
+    assertThat(Linter.run("---\na: 1\nb: 2\nc: 3\nd: 4\ne: [5, 6]\n", conf)).isEmpty();
+  }
+
+  @Test
+  void interrupted() throws Exception {
+    YamlLintConfig conf = getFakeConfig();
+    conf.setTimeout(60000);
+    Thread.currentThread().interrupt();
+    try {
+      List<LintProblem> problems = Linter.run("---\na: 1\n", conf);
+      assertThat(problems.size()).isEqualTo(1);
+      assertThat(problems.get(0).getDesc())
+          .isEqualTo("lint interrupted, the rest of the file is not checked");
+    } finally {
+      Thread.interrupted();
+    }
+    assertThat(Linter.run("---\na: 1\n", conf)).isEmpty();
+  }
+
+  @Test
+  void interruptedWithoutLimit() throws Exception {
+    // Interrupts stop the lint even if no time or token limit is set
+    YamlLintConfig conf = getFakeConfig();
+    Thread.currentThread().interrupt();
+    try {
+      List<LintProblem> problems = Linter.run("---\na: 1\n", conf);
+      assertThat(problems.size()).isEqualTo(1);
+      assertThat(problems.get(0).getDesc())
+          .isEqualTo("lint interrupted, the rest of the file is not checked");
+    } finally {
+      Thread.interrupted();
+    }
+    assertThat(Linter.run("---\na: 1\n", conf)).isEmpty();
+  }
+
   @Test
   void getProblemLevel() {
     assertThat(Linter.getProblemLevel(0)).isEqualTo(Linter.NONE_LEVEL);
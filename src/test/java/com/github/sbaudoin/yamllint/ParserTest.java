@@ -202,6 +202,19 @@ class ParserTest {
     assertThat(e.get(8)).isInstanceOf(Parser.Comment.class);
     assertThat(e.get(9)).isInstanceOf(Parser.Line.class);
     assertThat(e.get(12)).isInstanceOf(Parser.Line.class);
+
+    // Lines know the tokens that start on them
+    assertThat(((Parser.Line) e.get(2)).getTokens())
+        .extracting(t -> t.getClass().getSimpleName())
+        .containsExactly("StreamStartToken", "DocumentStartToken");
+    assertThat(((Parser.Line) e.get(9)).getTokens())
+        .extracting(t -> t.getClass().getSimpleName())
+        .containsExactly(
+            "BlockMappingStartToken", "KeyToken", "ScalarToken", "ValueToken", "ScalarToken");
+    assertThat(((Parser.Line) e.get(12)).getTokens())
+        .extracting(t -> t.getClass().getSimpleName())
+        .containsExactly("BlockEndToken", "StreamEndToken");
+    assertThat(Parser.getLines("k: v\n").get(0).getTokens()).isEmpty();
   }
 
   @Test
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+import org.junit.jupiter.api.Test;
+
+class PathPatternsTest {
+  @Test
+  void regex() {
+    List<String> source = Arrays.asList(".*\\.txt$", "foo.bar", "(?i).*\\.MD");
+    PathPatterns patterns = PathPatterns.compile(source, PathPatterns.Syntax.REGEX);
+    assertThat(patterns.getSource()).isSameAs(source);
+    assertThat(patterns.getSyntax()).isEqualTo(PathPatterns.Syntax.REGEX);
+    assertThat(patterns.matches("/my/file.txt")).isTrue();
+    assertThat(patterns.matches("foo.bar")).isTrue();
+    assertThat(patterns.matches("fooxbar")).isTrue();
+    assertThat(patterns.matches("/foo.bar")).isFalse();
+    assertThat(patterns.matches("README.md")).isTrue();
+    assertThat(patterns.matches("file.txt.bak")).isFalse();
+    assertThat(patterns.matchesDirectory("foo.bar")).isFalse();
+
+    // Back references are kept local to their own pattern
+    patterns = PathPatterns.compile(Arrays.asList("(a)b", "(c)\\1"), PathPatterns.Syntax.REGEX);
+    assertThat(patterns.matches("ab")).isTrue();
+    assertThat(patterns.matches("cc")).isTrue();
+    assertThat(patterns.matches("ca")).isFalse();
+
+    // Patterns that cannot be combined are matched one by one
+    patterns =
+        PathPatterns.compile(
+            Arrays.asList("(?<d>a)/.*", "(?<d>b)/.*", "c/.*"), PathPatterns.Syntax.REGEX);
+    assertThat(patterns.matches("a/x.yaml")).isTrue();
+    assertThat(patterns.matches("b/x.yaml")).isTrue();
+    assertThat(patterns.matches("c/x.yaml")).isTrue();
+    assertThat(patterns.matches("d/x.yaml")).isFalse();
+    patterns = PathPatterns.compile(Arrays.asList("\\Qa.b", "c/.*"), PathPatterns.Syntax.REGEX);
+    assertThat(patterns.matches("a.b")).isTrue();
+    assertThat(patterns.matches("axb")).isFalse();
+    assertThat(patterns.matches("c/x.yaml")).isTrue();
+    patterns = PathPatterns.compile(Arrays.asList("[a]", "(?x) c / .*"), PathPatterns.Syntax.REGEX);
+    assertThat(patterns.matches("a")).isTrue();
+    assertThat(patterns.matches("c/x.yaml")).isTrue();
+
+    assertThat(PathPatterns.compile(null, PathPatterns.Syntax.REGEX).matches("foo")).isFalse();
+    assertThat(PathPatterns.NONE.matches("")).isFalse();
+    assertThatThrownBy(() -> PathPatterns.compile(List.of("(foo"), PathPatterns.Syntax.REGEX))
+        .isInstanceOf(PatternSyntaxException.class);
+  }
+
+  @Test
+  void gitignore() {
+    PathPatterns patterns =
+        PathPatterns.compile(
+            Arrays.asList("# comment", "", "*.txt", "/build", "docs/**/*.md", "tmp/", "a?c.yaml  "),
+            PathPatterns.Syntax.GITIGNORE);
+    assertThat(patterns.matches("file.txt")).isTrue();
+    assertThat(patterns.matches("./sub/dir/file.txt")).isTrue();
+    assertThat(patterns.matches("file.txt.bak")).isFalse();
+    assertThat(patterns.matches("build/x.yaml")).isTrue();
+    assertThat(patterns.matches("sub/build/x.yaml")).isFalse();
+    assertThat(patterns.matches("docs/a.md")).isTrue();
+    assertThat(patterns.matches("docs/a/b/c.md")).isTrue();
+    assertThat(patterns.matches("other/docs/a.md")).isFalse();
+    assertThat(patterns.matches("tmp")).isFalse();
+    assertThat(patterns.matches("x/tmp/y.yaml")).isTrue();
+    assertThat(patterns.matches("abc.yaml")).isTrue();
+    assertThat(patterns.matches("a/c.yaml")).isFalse();
+    assertThat(patterns.matches("# comment")).isFalse();
+
+    assertThat(patterns.matchesDirectory("build")).isTrue();
+    assertThat(patterns.matchesDirectory("./build/sub")).isTrue();
+    assertThat(patterns.matchesDirectory("tmp")).isTrue();
+    assertThat(patterns.matchesDirectory("docs")).isFalse();
+    assertThat(patterns.matchesDirectory("src")).isFalse();
+  }
+
+  @Test
+  void gitignoreNegation() {
+    PathPatterns patterns =
+        PathPatterns.compile(
+            Arrays.asList("*.yaml", "!keep.yaml", "vendor/", "generated/"),
+            PathPatterns.Syntax.GITIGNORE);
+    assertThat(patterns.matches("a.yaml")).isTrue();
+    assertThat(patterns.matches("dir/keep.yaml")).isFalse();
+    assertThat(patterns.matches("vendor/keep.yaml")).isTrue();
+    assertThat(patterns.matchesDirectory("vendor")).isTrue();
+
+    patterns =
+        PathPatterns.compile(
+            Arrays.asList("vendor/", "!vendor/keep.yaml"), PathPatterns.Syntax.GITIGNORE);
+    assertThat(patterns.matches("vendor/a.yaml")).isTrue();
+    assertThat(patterns.matches("vendor/keep.yaml")).isFalse();
+    // A later negation may re-include files: the directory must be traversed
+    assertThat(patterns.matchesDirectory("vendor")).isFalse();
+  }
+
+  @Test
+  void globToRegex() {
+    assertThat(PathPatterns.globToRegex("*.yaml")).isEqualTo("[^/]*\\.yaml");
+    assertThat(PathPatterns.globToRegex("**/a")).isEqualTo("(?:.*/)?a");
+    assertThat(PathPatterns.globToRegex("a/**")).isEqualTo("a/.*");
+    assertThat(PathPatterns.globToRegex("a/**/b")).isEqualTo("a/(?:.*/)?b");
+    assertThat(PathPatterns.globToRegex("a**b")).isEqualTo("a[^/]*b");
+    assertThat(PathPatterns.globToRegex("[!a-c]x")).isEqualTo("[^a-c]x");
+    assertThat(PathPatterns.globToRegex("[]a]")).isEqualTo("[\\]a]");
+    assertThat(PathPatterns.globToRegex("[abc")).isEqualTo("\\[abc");
+    assertThat(PathPatterns.globToRegex("\\!x\\*")).isEqualTo("\\!x\\*");
+    assertThat(PathPatterns.globToRegex("a+(b)")).isEqualTo("a\\+\\(b\\)");
+  }
+
+  @Test
+  void syntax() {
+    assertThat(PathPatterns.Syntax.of("regex")).isEqualTo(PathPatterns.Syntax.REGEX);
+    assertThat(PathPatterns.Syntax.of("gitignore")).isEqualTo(PathPatterns.Syntax.GITIGNORE);
+    assertThat(PathPatterns.Syntax.of("glob")).isNull();
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class ReorderBufferTest {
+  @Test
+  void orderedAndBounded() throws Exception {
+    ReorderBuffer<Long> buffer = new ReorderBuffer<>(16);
+    AtomicLong counter = new AtomicLong(0);
+    List<Thread> producers = new ArrayList<>();
+    for (int t = 0; t < 8; t++) {
+      Thread producer =
+          new Thread(
+              () -> {
+                try {
+                  for (long i = counter.getAndIncrement();
+                      i < 20000;
+                      i = counter.getAndIncrement()) {
+                    if (ThreadLocalRandom.current().nextInt(100) == 0) {
+                      Thread.sleep(1);
+                    }
+                    buffer.put(i, i);
+                  }
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+              });
+      producer.start();
+      producers.add(producer);
+    }
+    buffer.finish(20000);
+
+    long expected = 0;
+    for (Long item = buffer.take(); item != null; item = buffer.take()) {
+      assertThat(item).isEqualTo(expected++);
+    }
+    assertThat(expected).isEqualTo(20000);
+    assertThat(buffer.size()).isZero();
+    // Memory stays flat whatever the number of items
+    assertThat(buffer.getMaxSize()).isBetween(1, 16);
+    for (Thread producer : producers) {
+      producer.join();
+    }
+  }
+
+  @Test
+  void waitForRoom() throws Exception {
+    ReorderBuffer<String> buffer = new ReorderBuffer<>(2);
+    assertThat(buffer.offer(1, "b")).isTrue();
+    assertThat(buffer.offer(2, "c")).isFalse();
+    assertThat(buffer.size()).isEqualTo(1);
+
+    CountDownLatch put = new CountDownLatch(1);
+    Thread producer =
+        new Thread(
+            () -> {
+              try {
+                buffer.put(2, "c");
+                put.countDown();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+    producer.start();
+    assertThat(put.getCount()).isEqualTo(1);
+    buffer.put(0, "a");
+    assertThat(buffer.take()).isEqualTo("a");
+    put.await();
+    assertThat(buffer.take()).isEqualTo("b");
+    assertThat(buffer.take()).isEqualTo("c");
+    assertThat(buffer.getMaxSize()).isEqualTo(2);
+    producer.join();
+
+    buffer.finish(3);
+    assertThat(buffer.take()).isNull();
+  }
+
+  @Test
+  void finish() throws Exception {
+    ReorderBuffer<String> buffer = new ReorderBuffer<>(4);
+    buffer.finish(0);
+    assertThat(buffer.take()).isNull();
+
+    buffer = new ReorderBuffer<>(4);
+    buffer.finish(2);
+    buffer.put(1, "b");
+    buffer.put(0, "a");
+    assertThat(buffer.take()).isEqualTo("a");
+    assertThat(buffer.take()).isEqualTo("b");
+    assertThat(buffer.take()).isNull();
+  }
+
+  @Test
+  void invalid() throws Exception {
+    assertThatThrownBy(() -> new ReorderBuffer<String>(0))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("capacity must be strictly positive");
+
+    ReorderBuffer<String> buffer = new ReorderBuffer<>(4);
+    buffer.put(0, "a");
+    assertThatThrownBy(() -> buffer.put(0, "b"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("item 0 already added");
+    buffer.take();
+    assertThatThrownBy(() -> buffer.offer(0, "b"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("item 0 already added");
+    assertThatThrownBy(() -> buffer.put(1, null)).isInstanceOf(NullPointerException.class);
+  }
+}
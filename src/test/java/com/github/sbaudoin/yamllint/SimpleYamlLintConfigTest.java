@@ -18,6 +18,7 @@ package com.github.sbaudoin.yamllint;
 import static org.assertj.core.api.Assertions.*;
 
 import com.github.sbaudoin.yamllint.rules.Rule;
+import com.github.sbaudoin.yamllint.rules.RuleFactory;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
@@ -73,6 +74,96 @@ class SimpleYamlLintConfigTest {
     assertThat(conf.getEnabledRules(null).size()).isEqualTo(1);
   }
 
+  @Test
+  void minLevel() throws Exception {
+    YamlLintConfig conf =
+        new YamlLintConfig(
+            """
+       rules:
+         colons: enable
+         comments:
+           level: warning
+         truthy:
+           level: info
+       """);
+
+    assertThat(conf.getMinLevel()).isEqualTo(Linter.INFO_LEVEL);
+    assertThat(conf.getEnabledRules(null).size()).isEqualTo(3);
+
+    conf.setMinLevel(Linter.WARNING_LEVEL);
+    assertThat(conf.getEnabledRules(null).stream().map(Rule::getId))
+        .containsExactlyInAnyOrder("colons", "comments");
+
+    conf.setMinLevel(Linter.ERROR_LEVEL);
+    assertThat(conf.getEnabledRules(null).stream().map(Rule::getId)).containsExactly("colons");
+    assertThat(Linter.run("---\nfoo: bar #baz\nbar: yes\n", conf)).isEmpty();
+
+    YamlLintConfig finalConf = conf;
+    assertThatThrownBy(() -> finalConf.setMinLevel("foo"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> finalConf.setMinLevel(Linter.NONE_LEVEL))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void maxProblems() throws Exception {
+    YamlLintConfig conf = new YamlLintConfig("extends: default");
+    assertThat(conf.getMaxProblemsPerFile()).isEqualTo(0);
+    assertThat(conf.getMaxProblemsPerRule()).isEqualTo(0);
+
+    conf =
+        new YamlLintConfig(
+            """
+       max-problems-per-file: 10
+       max-problems-per-rule: 3
+       rules:
+         colons: enable
+       """);
+    assertThat(conf.getMaxProblemsPerFile()).isEqualTo(10);
+    assertThat(conf.getMaxProblemsPerRule()).isEqualTo(3);
+
+    assertThatThrownBy(() -> new YamlLintConfig("max-problems-per-file: -1"))
+        .isInstanceOf(YamlLintConfigException.class)
+        .hasMessage("invalid config: 'max-problems-per-file' must be a positive integer or 0");
+    assertThatThrownBy(() -> new YamlLintConfig("max-problems-per-rule: foo"))
+        .isInstanceOf(YamlLintConfigException.class);
+    YamlLintConfig finalConf = conf;
+    assertThatThrownBy(() -> finalConf.setMaxProblemsPerFile(-1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void budget() throws Exception {
+    YamlLintConfig conf = new YamlLintConfig("extends: default");
+    assertThat(conf.getTimeout()).isEqualTo(0);
+    assertThat(conf.getMaxTokens()).isEqualTo(0);
+
+    conf =
+        new YamlLintConfig(
+            """
+       timeout: 5000
+       max-tokens: 100000
+       rules:
+         colons: enable
+       """);
+    assertThat(conf.getTimeout()).isEqualTo(5000);
+    assertThat(conf.getMaxTokens()).isEqualTo(100000);
+
+    // Inherited
+    YamlLintConfig base = conf;
+    conf = new YamlLintConfig("rules:\n  colons: disable\n");
+    conf.extend(base);
+    assertThat(conf.getTimeout()).isEqualTo(5000);
+    assertThat(conf.getMaxTokens()).isEqualTo(100000);
+
+    assertThatThrownBy(() -> new YamlLintConfig("timeout: -1"))
+        .isInstanceOf(YamlLintConfigException.class)
+        .hasMessage("invalid config: 'timeout' must be a positive integer or 0");
+    assertThatThrownBy(() -> new YamlLintConfig("max-tokens: foo"))
+        .isInstanceOf(YamlLintConfigException.class)
+        .hasMessage("invalid config: 'max-tokens' must be a positive integer or 0");
+  }
+
   @Test
   void invalidConf() {
     assertThatThrownBy(() -> new YamlLintConfig("")).isInstanceOf(YamlLintConfigException.class);
@@ -586,6 +677,69 @@ class SimpleYamlLintConfigTest {
     assertThat(conf.isYamlFile("/foo.Yaml")).isFalse();
   }
 
+  @Test
+  void uncombinablePatterns() throws Exception {
+    YamlLintConfig conf =
+        new YamlLintConfig(
+            """
+       ignore:
+         - '(?<d>a)/.*'
+         - '(?<d>b)/.*'
+         - 'c/.*'
+       """);
+    assertThat(conf.isFileIgnored("b/x.yaml")).isTrue();
+    assertThat(conf.isFileIgnored("c/x.yaml")).isTrue();
+    assertThat(conf.isFileIgnored("d/x.yaml")).isFalse();
+
+    conf = new YamlLintConfig("""
+       ignore:
+         - '\\Qa.b'
+         - 'c/.*'
+       """);
+    assertThat(conf.isFileIgnored("a.b")).isTrue();
+    assertThat(conf.isFileIgnored("c/x.yaml")).isTrue();
+  }
+
+  @Test
+  void patternSyntax() throws Exception {
+    YamlLintConfig conf =
+        new YamlLintConfig(
+            """
+       pattern-syntax: gitignore
+       ignore: |
+         *.txt
+         /vendor/
+       rules:
+         colons:
+           ignore: |
+             generated/
+       """);
+    assertThat(conf.isYamlFile("./dir/file.yaml")).isTrue();
+    assertThat(conf.isYamlFile("foo.yml")).isTrue();
+    assertThat(conf.isYamlFile("foo.json")).isFalse();
+    assertThat(conf.isYamlFile(".yamllint")).isTrue();
+    assertThat(conf.isYamlFile("dir/.yamllint")).isTrue();
+    assertThat(conf.isFileIgnored("my/file.txt")).isTrue();
+    assertThat(conf.isFileIgnored("vendor/file.yaml")).isTrue();
+    assertThat(conf.isFileIgnored("my/vendor/file.yaml")).isFalse();
+    assertThat(conf.isDirectoryIgnored("vendor")).isTrue();
+    assertThat(conf.isDirectoryIgnored("src")).isFalse();
+    assertThat(RuleFactory.instance.getRule("colons").ignores(new File("a/generated/b.yaml")))
+        .isTrue();
+    RuleFactory.instance.getRule("colons").setIgnore(Collections.emptyList());
+
+    conf = new YamlLintConfig("ignore: |\n  vendor/.*\n");
+    assertThat(conf.isFileIgnored("vendor/file.yaml")).isTrue();
+    assertThat(conf.isDirectoryIgnored("vendor")).isFalse();
+
+    assertThatThrownBy(() -> new YamlLintConfig("pattern-syntax: glob\n"))
+        .isInstanceOf(YamlLintConfigException.class)
+        .hasMessage("invalid config: 'pattern-syntax' should be \"regex\" or \"gitignore\"");
+    assertThatThrownBy(() -> new YamlLintConfig("ignore: (foo\n"))
+        .isInstanceOf(YamlLintConfigException.class)
+        .hasMessageStartingWith("invalid file patterns config: Unclosed group");
+  }
+
   @SuppressWarnings("unchecked")
   private Map toMap(Object[][] o) {
     Map map = new HashMap();
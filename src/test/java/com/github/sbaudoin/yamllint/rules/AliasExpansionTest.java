@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint.rules;
+
+import com.github.sbaudoin.yamllint.YamlLintConfig;
+import org.junit.jupiter.api.Test;
+
+class AliasExpansionTest extends RuleTester {
+  private static final String LAUGHS =
+      """
+      ---
+      a: &a ["lol", "lol", "lol", "lol"]
+      b: &b [*a, *a, *a, *a]
+      c: &c [*b, *b, *b, *b]
+      d: [*c, *c]
+      """;
+
+  @Test
+  void disabled() throws Exception {
+    YamlLintConfig conf = getConfig("alias-expansion: disable");
+    check(LAUGHS, conf);
+  }
+
+  @Test
+  void flowCollections() throws Exception {
+    // a = 5 nodes, b = 21 nodes, c = 85 nodes: the aliases expand to 4*5 + 4*21 + 2*85 nodes
+    check(LAUGHS, getConfig("alias-expansion: {max-expanded-nodes: 274}"));
+    check(LAUGHS, getConfig("alias-expansion: {max-expanded-nodes: 273}"), getLintProblem(5, 9));
+    check(LAUGHS, getConfig("alias-expansion: {max-expanded-nodes: 100}"), getLintProblem(4, 20));
+  }
+
+  @Test
+  void blockCollections() throws Exception {
+    String source =
+        """
+        ---
+        base: &base
+          foo: bar
+          list: &list
+          - 1
+          - 2
+          other:
+            - 3
+        extended:
+          <<: *base
+          more: *list
+        ...
+        ---
+        base: &base
+          foo: bar
+        extended: *base
+        """;
+    // base = 1 + 2 (foo: bar) + 1 (list) + 3 (&list) + 1 (other) + 2 (sequence) = 10 nodes
+    check(source, getConfig("alias-expansion: {max-expanded-nodes: 13}"));
+    check(source, getConfig("alias-expansion: {max-expanded-nodes: 12}"), getLintProblem(11, 9));
+    check(source, getConfig("alias-expansion: {max-expanded-nodes: 9}"), getLintProblem(10, 7));
+  }
+
+  @Test
+  void emptyAndUndeclared() throws Exception {
+    YamlLintConfig conf = getConfig("alias-expansion: {max-expanded-nodes: 2}", "anchors: disable");
+    check(
+        """
+        ---
+        a: &a
+        b: *a
+        c: *a
+        d: *unknown
+        """,
+        conf,
+        getLintProblem(5, 4));
+  }
+}
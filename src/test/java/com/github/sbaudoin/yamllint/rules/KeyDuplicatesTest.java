@@ -305,4 +305,15 @@ class KeyDuplicatesTest extends RuleTester {
               """,
         conf);
   }
+
+  @Test
+  void wideMapping() throws Exception {
+    YamlLintConfig conf = getConfig("key-duplicates: enable");
+    StringBuilder source = new StringBuilder("---\n");
+    for (int i = 0; i < 20000; i++) {
+      source.append("key").append(i).append(": ").append(i).append("\n");
+    }
+    source.append("key42: duplicated\n");
+    check(source.toString(), conf, getLintProblem(20002, 1));
+  }
 }
@@ -15,7 +15,10 @@
  */
 package com.github.sbaudoin.yamllint.rules;
 
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
 import com.github.sbaudoin.yamllint.YamlLintConfig;
+import com.github.sbaudoin.yamllint.YamlLintConfigException;
 import org.junit.jupiter.api.Test;
 
 class KeyOrderingTest extends RuleTester {
@@ -180,6 +183,50 @@ class KeyOrderingTest extends RuleTester {
         getLintProblem(3, 1));
   }
 
+  @Test
+  void locale() throws Exception {
+    YamlLintConfig conf = getConfig("key-ordering: {locale: fr}");
+    check(
+        """
+              ---
+              hair: true
+              haïr: true
+              hais: true
+              haïssable: true
+              """,
+        conf);
+    check(
+        """
+              ---
+              hais: true
+              haïr: true
+              """,
+        conf,
+        getLintProblem(3, 1));
+    check(
+        """
+              ---
+              - t-shirt: 1
+                T-shirt: 2
+                t-shirts: 3
+                T-shirts: 4
+              - {b: 1, a: 2}
+              """,
+        conf,
+        getLintProblem(6, 10));
+  }
+
+  @Test
+  void invalidLocale() {
+    assertThatExceptionOfType(YamlLintConfigException.class)
+        .isThrownBy(() -> getConfig("key-ordering: {locale: french}"))
+        .withMessageContaining("\"french\" is not a valid locale");
+    assertThatExceptionOfType(YamlLintConfigException.class)
+        .isThrownBy(() -> getConfig("key-ordering: {locale: '12'}"));
+    assertThatExceptionOfType(YamlLintConfigException.class)
+        .isThrownBy(() -> getConfig("key-ordering: {locale: 12}"));
+  }
+
   @Test
   void keyTokensInFlowSequences() throws Exception {
     YamlLintConfig conf = getConfig("key-ordering: enable");
@@ -15,8 +15,11 @@
  */
 package com.github.sbaudoin.yamllint.rules;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import com.github.sbaudoin.yamllint.Format;
 import com.github.sbaudoin.yamllint.YamlLintConfig;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 
 class LineLengthTest extends RuleTester {
@@ -237,6 +240,23 @@ class LineLengthTest extends RuleTester {
         getLintProblem(2, 21));
   }
 
+  @Test
+  void nonBreakableInlineMappingsConfUnchanged() throws Exception {
+    YamlLintConfig conf =
+        getConfig(
+            "line-length: {max: 20, allow-non-breakable-words: false, allow-non-breakable-inline-mappings: true}");
+    check(
+        """
+              ---
+              long_line: http://localhost/very/very/long/url
+              """,
+        conf);
+    assertThat(
+            ((Map<?, ?>) conf.getRuleConf("line-length"))
+                .get(LineLength.OPTION_ALLOW_NON_BREAKABLE_WORDS))
+        .isEqualTo(false);
+  }
+
   @Test
   void nonBreakableInlineMappings() throws Exception {
     YamlLintConfig conf =
@@ -267,6 +287,36 @@ class LineLengthTest extends RuleTester {
         getLintProblem(2, 21),
         getLintProblem(3, 21));
 
+    // Flow collections are not inline mappings
+    check(
+        """
+              ---
+              {a: http://localhost/very/very/long/url}
+              """,
+        conf,
+        getLintProblem(2, 21));
+    check(
+        """
+              ---
+              - {a: http://localhost/very/very/long/url}
+              """,
+        conf,
+        getLintProblem(2, 21));
+    check(
+        """
+              ---
+              [a, b: http://localhost/very/very/long/url]
+              """,
+        conf,
+        getLintProblem(2, 21));
+    check(
+        """
+              ---
+              - [a, b: http://localhost/very/very/long/url]
+              """,
+        conf,
+        getLintProblem(2, 21));
+
     conf =
         getConfig(
             "line-length: {max: 20,"
@@ -563,6 +563,33 @@ class QuotedStringsTest extends RuleTester {
         getLintProblem(7, 5));
   }
 
+  @Test
+  void onlyWhenNeededPlainScalarBoundaries() throws Exception {
+    YamlLintConfig conf = getConfig("quoted-strings: {required: only-when-needed}");
+
+    check(
+        """
+              ---
+              - "foo:"
+              - "a #b"
+              - "a#b"
+              - "a:b"
+              - "foo "
+              - " foo"
+              - "a\\tb"
+              - "-"
+              - "-x"
+              - "a#b"
+              - "a\\nb"
+              """,
+        conf,
+        getLintProblem(4, 3),
+        getLintProblem(5, 3),
+        getLintProblem(8, 3),
+        getLintProblem(10, 3),
+        getLintProblem(11, 3));
+  }
+
   @Test
   void onlyWhenNeededExtras() throws Exception {
     YamlLintConfig conf;
@@ -580,6 +607,21 @@ class QuotedStringsTest extends RuleTester {
     } catch (YamlLintConfigException e) {
     }
 
+    assertThatThrownBy(
+            () ->
+                getConfig(
+                    "quoted-strings:", "  required: only-when-needed", "  extra-allowed: ['(']"))
+        .isInstanceOf(YamlLintConfigException.class)
+        .hasMessageContaining("invalid regexp in \"extra-allowed\"");
+    assertThatThrownBy(
+            () -> getConfig("quoted-strings:", "  required: false", "  extra-required: ['[a']"))
+        .isInstanceOf(YamlLintConfigException.class)
+        .hasMessageContaining("invalid regexp in \"extra-required\"");
+    assertThatThrownBy(
+            () -> getConfig("quoted-strings:", "  required: false", "  .extra-required: [x]"))
+        .isInstanceOf(YamlLintConfigException.class)
+        .hasMessageContaining("unknown option \".extra-required\"");
+
     conf = getConfig("quoted-strings:", "  required: true");
     check(
         "---\n"
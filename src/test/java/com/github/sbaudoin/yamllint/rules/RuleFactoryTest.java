@@ -44,6 +44,7 @@ class RuleFactoryTest {
     logger.addHandler(sh);
 
     // All known rules
+    assertThat(RuleFactory.instance.getRule("alias-expansion")).isNotNull();
     assertThat(RuleFactory.instance.getRule("braces")).isNotNull();
     assertThat(RuleFactory.instance.getRule("brackets")).isNotNull();
     assertThat(RuleFactory.instance.getRule("colons")).isNotNull();
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint.rules;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.tokens.ScalarToken;
+
+class ScalarInfoTest {
+  private static final Mark MARK = new Mark("test", 0, 0, 0, new int[0], 0);
+
+  private static ScalarInfo info(String value) {
+    return new ScalarInfo(
+        new ScalarToken(value, true, MARK, MARK, DumperOptions.ScalarStyle.PLAIN));
+  }
+
+  @Test
+  void kind() {
+    assertThat(info("yes").getKind()).isEqualTo(ScalarInfo.Kind.TRUTHY);
+    assertThat(info("Off").getKind()).isEqualTo(ScalarInfo.Kind.TRUTHY);
+    assertThat(info("y").getKind()).isEqualTo(ScalarInfo.Kind.OTHER);
+    assertThat(info("42").getKind()).isEqualTo(ScalarInfo.Kind.INT);
+    assertThat(info("-010").getKind()).isEqualTo(ScalarInfo.Kind.INT);
+    assertThat(info("0").getKind()).isEqualTo(ScalarInfo.Kind.INT);
+    assertThat(info("010").getKind()).isEqualTo(ScalarInfo.Kind.IMPLICIT_OCTAL);
+    assertThat(info("018").getKind()).isEqualTo(ScalarInfo.Kind.INT);
+    assertThat(info("0o10").getKind()).isEqualTo(ScalarInfo.Kind.EXPLICIT_OCTAL);
+    assertThat(info("0o").getKind()).isEqualTo(ScalarInfo.Kind.OTHER);
+    assertThat(info("1.5").getKind()).isEqualTo(ScalarInfo.Kind.FLOAT);
+    assertThat(info("-1.").getKind()).isEqualTo(ScalarInfo.Kind.FLOAT);
+    assertThat(info(".").getKind()).isEqualTo(ScalarInfo.Kind.OTHER);
+    assertThat(info("-.inf").getKind()).isEqualTo(ScalarInfo.Kind.INF);
+    assertThat(info(".Inf").getKind()).isEqualTo(ScalarInfo.Kind.INF);
+    assertThat(info(".infinity").getKind()).isEqualTo(ScalarInfo.Kind.OTHER);
+    assertThat(info(".NaN").getKind()).isEqualTo(ScalarInfo.Kind.NAN);
+    assertThat(info("-.nan").getKind()).isEqualTo(ScalarInfo.Kind.OTHER);
+  }
+
+  @Test
+  void floatShape() {
+    assertThat(info("1e3").isScientific()).isTrue();
+    assertThat(info("-1.5E+3").isScientific()).isTrue();
+    assertThat(info(".5e-3").isScientific()).isTrue();
+    assertThat(info("1e").isScientific()).isFalse();
+    assertThat(info("1.5").isScientific()).isFalse();
+    assertThat(info(".5").isMissingLeadingNumeral()).isTrue();
+    assertThat(info("+.5e3").isMissingLeadingNumeral()).isTrue();
+    assertThat(info("0.5").isMissingLeadingNumeral()).isFalse();
+    assertThat(info(".e3").isMissingLeadingNumeral()).isFalse();
+  }
+
+  @Test
+  void implicitTag() {
+    assertThat(info("foo").getImplicitTag()).isEqualTo(Tag.STR);
+    assertThat(info("true").getImplicitTag()).isEqualTo(Tag.BOOL);
+    assertThat(info("0o17").getImplicitTag()).isEqualTo(Tag.INT);
+    assertThat(info("~").getImplicitTag()).isEqualTo(Tag.NULL);
+  }
+
+  @Test
+  void quotingNeeded() {
+    assertThat(info("foo bar").isQuotingNeeded()).isFalse();
+    assertThat(info("a#b").isQuotingNeeded()).isFalse();
+    assertThat(info("-x").isQuotingNeeded()).isFalse();
+    assertThat(info("").isQuotingNeeded()).isTrue();
+    assertThat(info("a #b").isQuotingNeeded()).isTrue();
+    assertThat(info("a: b").isQuotingNeeded()).isTrue();
+    assertThat(info("a:").isQuotingNeeded()).isTrue();
+    assertThat(info("- a").isQuotingNeeded()).isTrue();
+    assertThat(info("&a").isQuotingNeeded()).isTrue();
+    assertThat(info("a ").isQuotingNeeded()).isTrue();
+    assertThat(info("a\nb").isQuotingNeeded()).isTrue();
+  }
+
+  @Test
+  void sharedAnalysis() {
+    TokenAnalysis analysis = new TokenAnalysis();
+    ScalarToken token = new ScalarToken("foo", true, MARK, MARK, DumperOptions.ScalarStyle.PLAIN);
+    ScalarInfo first = analysis.getScalarInfo(token);
+    assertThat(analysis.getScalarInfo(token)).isSameAs(first);
+    assertThat(
+            analysis.getScalarInfo(
+                new ScalarToken("foo", true, MARK, MARK, DumperOptions.ScalarStyle.PLAIN)))
+        .isNotSameAs(first);
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint.rules;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.sbaudoin.yamllint.Parser;
+import org.junit.jupiter.api.Test;
+
+class StructureTrackerTest {
+  /**
+   * Returns the state of the tracker after each token of the passed source, one token per line:
+   * token type, depth, container (with a leading {@code f} for flow collections), position and flow
+   * level
+   */
+  private String trace(String source) {
+    TokenAnalysis analysis = new TokenAnalysis();
+    StringBuilder output = new StringBuilder();
+    for (Parser.Lined elem : Parser.getTokensOrComments(source)) {
+      if (elem instanceof Parser.Token token) {
+        analysis.update(token.getCurr());
+        // Updating twice with the same token must not change anything
+        analysis.update(token.getCurr());
+        StructureTracker structure = analysis.getStructure();
+        output.append(
+            "%s %d %s%s %s %d\n"
+                .formatted(
+                    token.getCurr().getClass().getSimpleName().replace("Token", ""),
+                    structure.getDepth(),
+                    structure.isFlow() ? "f" : "",
+                    structure.getContainer(),
+                    structure.getPosition(),
+                    structure.getFlowLevel()));
+      }
+    }
+    return output.toString();
+  }
+
+  @Test
+  void blockCollections() {
+    assertThat(trace("a:\n  - b\n  - c: d\n"))
+        .isEqualTo(
+            """
+            StreamStart 0 null NONE 0
+            BlockMappingStart 1 MAP NONE 0
+            Key 1 MAP KEY 0
+            Scalar 1 MAP KEY 0
+            Value 1 MAP VALUE 0
+            BlockSequenceStart 2 SEQ NONE 0
+            BlockEntry 2 SEQ NONE 0
+            Scalar 2 SEQ NONE 0
+            BlockEntry 2 SEQ NONE 0
+            BlockMappingStart 3 MAP NONE 0
+            Key 3 MAP KEY 0
+            Scalar 3 MAP KEY 0
+            Value 3 MAP VALUE 0
+            Scalar 3 MAP VALUE 0
+            BlockEnd 2 SEQ NONE 0
+            BlockEnd 1 MAP VALUE 0
+            BlockEnd 0 null NONE 0
+            StreamEnd 0 null NONE 0
+            """);
+  }
+
+  @Test
+  void flowCollections() {
+    assertThat(trace("- {a: [b, c]}\n"))
+        .isEqualTo(
+            """
+            StreamStart 0 null NONE 0
+            BlockSequenceStart 1 SEQ NONE 0
+            BlockEntry 1 SEQ NONE 0
+            FlowMappingStart 2 fMAP NONE 1
+            Key 2 fMAP KEY 1
+            Scalar 2 fMAP KEY 1
+            Value 2 fMAP VALUE 1
+            FlowSequenceStart 3 fSEQ NONE 2
+            Scalar 3 fSEQ NONE 2
+            FlowEntry 3 fSEQ NONE 2
+            Scalar 3 fSEQ NONE 2
+            FlowSequenceEnd 2 fMAP VALUE 1
+            FlowMappingEnd 1 SEQ NONE 0
+            BlockEnd 0 null NONE 0
+            StreamEnd 0 null NONE 0
+            """);
+  }
+
+  @Test
+  void containerId() {
+    TokenAnalysis analysis = new TokenAnalysis();
+    int firstId = -1;
+    int secondId = -1;
+    for (Parser.Lined elem : Parser.getTokensOrComments("- a: 1\n- a: 2\n")) {
+      if (elem instanceof Parser.Token token) {
+        analysis.update(token.getCurr());
+        if (analysis.getStructure().getDepth() == 2) {
+          if (firstId == -1) {
+            firstId = analysis.getStructure().getContainerId();
+          } else if (analysis.getStructure().getContainerId() != firstId) {
+            secondId = analysis.getStructure().getContainerId();
+          }
+        }
+      }
+    }
+    assertThat(firstId).isPositive();
+    assertThat(secondId).isPositive().isNotEqualTo(firstId);
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2018-2023, Sylvain Baudoin
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbaudoin.yamllint.rules;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.sbaudoin.yamllint.Parser;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.tokens.FlowEntryToken;
+import org.yaml.snakeyaml.tokens.ValueToken;
+
+class TokenAnalysisTest {
+  @Test
+  void spacing() {
+    TokenAnalysis analysis = new TokenAnalysis();
+    List<Parser.Lined> elems = Parser.getTokensOrComments("a  :   [b ,c]\nd:\n  e\n");
+    StringBuilder output = new StringBuilder();
+    for (Parser.Lined elem : elems) {
+      if (elem instanceof Parser.Token token
+          && (token.getCurr() instanceof ValueToken || token.getCurr() instanceof FlowEntryToken)) {
+        int before = analysis.getSpacesBefore(token.getCurr(), token.getPrev());
+        int after = analysis.getSpacesAfter(token.getCurr(), token.getNext());
+        // Computed once per token
+        assertThat(analysis.getSpacesBefore(token.getCurr(), token.getPrev())).isEqualTo(before);
+        assertThat(analysis.getSpacesAfter(token.getCurr(), token.getNext())).isEqualTo(after);
+        output.append(
+            "%s %s %s\n"
+                .formatted(
+                    token.getCurr().getClass().getSimpleName(),
+                    before == TokenAnalysis.NOT_SAME_LINE ? "-" : before,
+                    after == TokenAnalysis.NOT_SAME_LINE ? "-" : after));
+      }
+    }
+    assertThat(output.toString())
+        .isEqualTo(
+            """
+            ValueToken 2 3
+            FlowEntryToken 1 0
+            ValueToken 0 -
+            """);
+  }
+}